@@ -15,7 +15,6 @@
  */
 package de.nigjo.battleship;
 
-import java.beans.PropertyChangeListener;
 import java.io.IOException;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
@@ -24,24 +23,31 @@ import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
 import java.util.TreeMap;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import java.awt.GraphicsEnvironment;
 
 import javax.swing.SwingUtilities;
 
 import de.nigjo.battleship.api.SavegameStorage;
+import de.nigjo.battleship.api.StatusDisplayer;
 import de.nigjo.battleship.data.BoardData;
 import de.nigjo.battleship.data.KeyManager;
 import de.nigjo.battleship.data.Savegame;
 import de.nigjo.battleship.internal.SavegameLoader;
 import de.nigjo.battleship.internal.StateObserver;
+import de.nigjo.battleship.util.SerialExecutor;
 import de.nigjo.battleship.util.Storage;
+import de.nigjo.battleship.util.StorageListener;
 
 /**
  *
@@ -54,6 +60,8 @@ public final class BattleshipGame
   public static final String PLAYER_OPPONENT = "opponent";
   public static final String KEY_PLAYER_NUM = "BattleshipGame.player";
   public static final String KEY_STATE = "BattleshipGame.gamestate";
+  /** Praefix der Schluessel fuer {@link Config} Werte. */
+  public static final String KEY_CONFIG_PREFIX = "config.";
 
   public static final String STATE_PLACEMENT = "BattleshipGame.gamestate.placement";
   public static final String STATE_WAIT_START = "BattleshipGame.gamestate.waitForStart";
@@ -65,11 +73,59 @@ public final class BattleshipGame
       "BattleshipGame.gamestate.waitForResult";
   public static final String STATE_FINISHED = "BattleshipGame.gamestate.endOfGame";
 
-  private static final String STATE_CHANGER_THREAD = "BattleshipGame.stateChanger";
 
   private final Storage gamedata;
   private final Consumer<Runnable> stateChangeRunner;
-  private final Supplier<Boolean> stateChangeChecker;
+  /** Der zuletzt veroeffentlichte Status. Wird nur im "Change"-Thread geschrieben. */
+  private volatile StateSnapshot stateSnapshot;
+  private final Path playerId;
+  private final long created;
+  /** Laden und Pruefen des eigenen Schluessels. Startet erst bei Bedarf. */
+  private final AtomicReference<CompletableFuture<KeyManager>> ownKeys =
+      new AtomicReference<>();
+  /** Oeffentliche Schluessel, die in dieser Laufzeit bereits geprueft wurden. */
+  private static final Set<String> VALIDATED_KEYS = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Ein Status des Spiels mit seiner fortlaufenden Nummer. Jede Aenderung des Status
+   * erhoeht die Nummer um eins.
+   */
+  public static final class StateSnapshot
+  {
+    private final String state;
+    private final long version;
+    private final CompletableFuture<StateSnapshot> next = new CompletableFuture<>();
+
+    private StateSnapshot(String state, long version)
+    {
+      this.state = state;
+      this.version = version;
+    }
+
+    public String getState()
+    {
+      return state;
+    }
+
+    public long getVersion()
+    {
+      return version;
+    }
+
+    /**
+     * Der direkt folgende Status. So geht beim Warten kein Zwischenstatus verloren.
+     */
+    public CompletableFuture<StateSnapshot> next()
+    {
+      return next.copy();
+    }
+
+    @Override
+    public String toString()
+    {
+      return state + "@" + version;
+    }
+  }
 
   public static final class Config
   {
@@ -93,47 +149,34 @@ public final class BattleshipGame
     }
   }
 
+  /**
+   * Erstellt ein Spiel. Mit Oberflaeche laufen die Statusaenderungen im EDT, ohne
+   * Oberflaeche im gemeinsamen {@link MatchHost#getDefault()}.
+   */
   public BattleshipGame(Path playerId)
   {
-    this(playerId, createExecutor(), getThreadChecker());
+    this(playerId, GraphicsEnvironment.isHeadless()
+        ? MatchHost.getDefault().createSerialExecutor() : null);
   }
 
-  private static Consumer<Runnable> createExecutor()
+  /**
+   * @param serial Ausfuehrung der Statusaenderungen. Ohne wird der EDT verwendet.
+   */
+  BattleshipGame(Path playerId, SerialExecutor serial)
   {
-    if(GraphicsEnvironment.isHeadless())
-    {
-      var service = Executors.newSingleThreadExecutor((r) ->
-      {
-        Thread t = new Thread(r, STATE_CHANGER_THREAD);
-        t.setDaemon(true);
-        return t;
-      });
-      return service::execute;
-    }
-    else
+    this(playerId, serial == null ? SwingUtilities::invokeLater : serial::execute);
+    if(serial != null)
     {
-      return SwingUtilities::invokeLater;
+      gamedata.put(SerialExecutor.class, serial);
     }
   }
 
-  private static Supplier<Boolean> getThreadChecker()
-  {
-    if(GraphicsEnvironment.isHeadless())
-    {
-      return () -> STATE_CHANGER_THREAD.equals(
-          Thread.currentThread().getName());
-    }
-    else
-    {
-      return SwingUtilities::isEventDispatchThread;
-    }
-  }
-
-  public BattleshipGame(Path playerId, Consumer<Runnable> stateChangeRunner,
-      Supplier<Boolean> isStateChangeThread)
+  public BattleshipGame(Path playerId, Consumer<Runnable> stateChangeRunner)
   {
+    long start = System.nanoTime();
+    this.created = start;
+    this.playerId = playerId;
     this.gamedata = new Storage();
-    gamedata.put(KeyManager.KEY_MANAGER_SELF, new KeyManager(playerId));
     setConfig("size", "10");
     setConfig("ships",
         Arrays.stream(BoardData.GAME_SIMPLE)
@@ -143,32 +186,116 @@ public final class BattleshipGame
 
     clearBoards();
 
-    //just run-test the keymanager
-    validateKeyManager();
-
     //Bei diesem Status ist noch nichts festgelegt für das Spiel.
-    gamedata.put(KEY_STATE, "BattleshipGame.gamestate.init");
+    String initState = "BattleshipGame.gamestate.init";
+    gamedata.put(KEY_STATE, initState);
+    this.stateSnapshot = new StateSnapshot(initState, 0);
+    //Vor dem StateObserver, damit dessen Folgeaenderungen den neuen Status lesen.
+    gamedata.addPropertyChangeListener(KEY_STATE,
+        event -> publishState((String)event.getNewValue()));
     gamedata.addPropertyChangeListener(KEY_STATE, new StateObserver(this));
 
-    this.stateChangeChecker = isStateChangeThread;
     this.stateChangeRunner = stateChangeRunner;
+
+    Logger.getLogger(BattleshipGame.class.getName()).log(Level.FINE,
+        "game created after {0} ms", (System.nanoTime() - start) / 1_000_000);
   }
 
-  public void setConfig(String key, String value)
+  private static KeyManager loadKeyManager(Path playerId, long start)
   {
-    gamedata.put("config." + key, new Config(key, value));
+    KeyManager km = new KeyManager(playerId);
+    String publicKey = km.getPublicKey();
+    if(!VALIDATED_KEYS.contains(publicKey))
+    {
+      //just run-test the keymanager
+      validateKeyManager(km);
+      VALIDATED_KEYS.add(publicKey);
+    }
+    Logger.getLogger(BattleshipGame.class.getName()).log(Level.INFO,
+        "key manager ready after {0} ms", (System.nanoTime() - start) / 1_000_000);
+    return km;
   }
 
-  public Optional<Config> getConfig(String key)
+  /**
+   * Startet das Erstellen und Pruefen des eigenen Schluessels im Hintergrund, z.B. direkt
+   * beim Programmstart. Ohne diesen Aufruf wird der Schluessel beim ersten
+   * {@link #getKeyManager()} im aufrufenden Thread geladen.
+   */
+  public CompletableFuture<KeyManager> preloadKeys()
+  {
+    return loadKeys(true);
+  }
+
+  private CompletableFuture<KeyManager> loadKeys(boolean background)
   {
-    for(Config config : gamedata.getAll(Config.class))
+    CompletableFuture<KeyManager> current = ownKeys.get();
+    if(current != null)
     {
-      if(key.equals(config.getKey()))
+      return current;
+    }
+    CompletableFuture<KeyManager> loading = new CompletableFuture<>();
+    if(!ownKeys.compareAndSet(null, loading))
+    {
+      return ownKeys.get();
+    }
+    Runnable load = () ->
+    {
+      try
+      {
+        loading.complete(loadKeyManager(playerId, created));
+      }
+      catch(RuntimeException ex)
       {
-        return Optional.of(config);
+        loading.completeExceptionally(ex);
       }
+    };
+    if(background)
+    {
+      CompletableFuture.runAsync(load);
     }
-    return Optional.empty();
+    else
+    {
+      load.run();
+    }
+    return loading;
+  }
+
+  /**
+   * Liefert den eigenen Schluessel. Ist er noch nicht fertig erstellt und geprueft, wird
+   * darauf gewartet.
+   *
+   * @throws IllegalStateException wenn der Schluessel nicht verwendet werden kann.
+   */
+  public KeyManager getKeyManager()
+  {
+    KeyManager km = gamedata.get(KeyManager.KEY_MANAGER_SELF, KeyManager.class);
+    if(km == null)
+    {
+      try
+      {
+        km = loadKeys(false).join();
+      }
+      catch(CompletionException ex)
+      {
+        if(ex.getCause() instanceof RuntimeException)
+        {
+          throw (RuntimeException)ex.getCause();
+        }
+        throw new IllegalStateException(ex.getCause());
+      }
+      gamedata.put(KeyManager.KEY_MANAGER_SELF, km);
+    }
+    return km;
+  }
+
+  public void setConfig(String key, String value)
+  {
+    gamedata.put(KEY_CONFIG_PREFIX + key, new Config(key, value));
+  }
+
+  public Optional<Config> getConfig(String key)
+  {
+    return Optional.ofNullable(gamedata.get(KEY_CONFIG_PREFIX + key, Config.class));
   }
 
   public <T> T getData(Class<T> valueType)
@@ -211,6 +338,16 @@ public final class BattleshipGame
     return gamedata.getOrSet(key, type, def);
   }
 
+  /**
+   * Die Statusanzeige dieses Spiels. Ohne eigene Anzeige wird
+   * {@link StatusDisplayer#getDefault()} verwendet.
+   */
+  public StatusDisplayer getStatusDisplayer()
+  {
+    StatusDisplayer own = gamedata.get(StatusDisplayer.class);
+    return own == null ? StatusDisplayer.getDefault() : own;
+  }
+
   public <T> Optional<T> findData(Class<T> type)
   {
     return gamedata.find(type);
@@ -222,13 +359,13 @@ public final class BattleshipGame
   }
 
   public void addPropertyChangeListener(String propertyName,
-      PropertyChangeListener listener)
+      StorageListener listener)
   {
     gamedata.addPropertyChangeListener(propertyName, listener);
   }
 
   public void removePropertyChangeListener(String propertyName,
-      PropertyChangeListener listener)
+      StorageListener listener)
   {
     gamedata.removePropertyChangeListener(propertyName, listener);
   }
@@ -236,7 +373,7 @@ public final class BattleshipGame
   public void clearBoards()
   {
     Config sizeCfg =
-        getDataOrSet("config.size", Config.class,
+        getDataOrSet(KEY_CONFIG_PREFIX + "size", Config.class,
             () -> new Config("size", String.valueOf(10)));
     int size = Integer.parseInt(sizeCfg.getValue());
     clearBoard(gamedata, size, false);
@@ -246,7 +383,7 @@ public final class BattleshipGame
   public void clearBoard(boolean opponent)
   {
     Config sizeCfg =
-        getDataOrSet("config.size", Config.class,
+        getDataOrSet(KEY_CONFIG_PREFIX + "size", Config.class,
             () -> new Config("size", String.valueOf(10)));
     clearBoard(gamedata, Integer.parseInt(sizeCfg.getValue()), opponent);
   }
@@ -257,6 +394,11 @@ public final class BattleshipGame
     {
       BoardData op = new BoardData(size);
       op.setOpponent(true);
+      getConfig("ships")
+          .map(Config::getValue)
+          .map(ships -> Arrays.stream(ships.split(","))
+          .mapToInt(Integer::parseInt).toArray())
+          .ifPresent(op::setFleet);
       gamedata.put(BoardData.KEY_OPPONENT, op);
     }
     else
@@ -277,32 +419,31 @@ public final class BattleshipGame
     {
       throw new NoSuchFileException("no savegame");
     }
-    loadSavegame(savegame.getStorage());
+    SavegameLoader.reloadGame(this, savegame);
   }
 
   public void storeOwnBoard()
   {
-    KeyManager km = getData(
-        KeyManager.KEY_MANAGER_SELF, KeyManager.class);
+    KeyManager km = getKeyManager();
 
     BoardData board = getData(BoardData.KEY_SELF, BoardData.class);
     int self = getDataInt(KEY_PLAYER_NUM, -1);
 
-    String payload = km.encode(board.toString());
-    getData(Savegame.class)
-        .addRecord(Savegame.Record.BOARD, self, payload);
+    Savegame savegame = getData(Savegame.class);
+    //Ab Version 1 kennt der Gegner den Sitzungsschluessel. Das Brett wird versiegelt.
+    String payload = savegame.getVersion() >= 1
+        ? km.seal(board.toString())
+        : km.encode(board.toString());
+    savegame.addRecord(Savegame.Record.BOARD, self, payload);
     updateState(BattleshipGame.STATE_WAIT_START);
   }
 
-  private void validateKeyManager()
+  private static void validateKeyManager(KeyManager km)
   {
-    KeyManager km = gamedata.get(KeyManager.KEY_MANAGER_SELF, KeyManager.class);
-
     validate(km, "BattleShip");
     validate(km, "A".repeat(100));
 
-    String plainBoard =
-        this.gamedata.get(BoardData.KEY_SELF, BoardData.class).toString();
+    String plainBoard = new BoardData(10).toString();
     validate(km, plainBoard);
   }
 
@@ -345,7 +486,9 @@ public final class BattleshipGame
         .forEach(cfg -> orderedConfig.put(cfg.getKey(), cfg.getValue()));
     orderedConfig.forEach(savegame::setConfig);
 
-    KeyManager km = this.getData(KeyManager.KEY_MANAGER_SELF, KeyManager.class);
+    KeyManager km = getKeyManager();
+    //Die Sitzungsschluessel erstellt Spieler 2 beim Beitritt.
+    km.setSessionKey(null);
     savegame.addRecord(Savegame.Record.PLAYER, 1, km.getPublicKey());
 
     savegame.store(storage);
@@ -357,6 +500,29 @@ public final class BattleshipGame
     this.updateState(BattleshipGame.STATE_PLACEMENT);
   }
 
+  /**
+   * Schiesst auf das gegnerische Brett und schreibt den Angriff in den Spielstand.
+   */
+  public void attack(int x, int y)
+  {
+    int self = getDataInt(KEY_PLAYER_NUM, 0);
+    String message = "Attacke auf " + Character.toString('A' + x) + (y + 1);
+    getStatusDisplayer().setText(message);
+    getData(BoardData.KEY_OPPONENT, BoardData.class).shootAt(x, y);
+
+    KeyManager km = getData(KeyManager.KEY_MANAGER_OPPONENT, KeyManager.class);
+    Savegame current = getData(Savegame.class);
+    String payload = current.encode(x + "," + y, km);
+    //Immer mit der Spielernummer markieren, die den Record lesen kann
+    current.batch(savegame ->
+    {
+      savegame.addRecord(Savegame.Record.MESSAGE, self, message);
+      savegame.addRecord(Savegame.Record.ATTACK, 3 - self, payload);
+    });
+    Logger.getLogger(BattleshipGame.class.getName()).log(Level.INFO, "{0}", message);
+    updateState(BattleshipGame.STATE_WAIT_RESPONSE);
+  }
+
   public void updateState()
   {
     StateObserver.updateState(this);
@@ -364,33 +530,51 @@ public final class BattleshipGame
 
   public void updateState(String state)
   {
-    stateChangeRunner.accept(() -> gamedata.put(BattleshipGame.KEY_STATE, state));
+    //Die Empfaenger des Status arbeiten im Kontext dieses Spiels.
+    stateChangeRunner.accept(
+        () -> GameContext.runWith(this, () -> gamedata.put(BattleshipGame.KEY_STATE, state)));
   }
 
+  /**
+   * Der zuletzt veroeffentlichte Status. Blockiert nicht. Bereits angestossene, aber noch
+   * nicht ausgefuehrte Aenderungen sind nicht enthalten.
+   */
   public String getState()
   {
-    if(stateChangeChecker != null && Boolean.TRUE.equals(stateChangeChecker.get()))
-    {
-      //Deadlock sind doof. Innerhalb des "Change"-Threads direkt ausführen.
-      return gamedata.getString(KEY_STATE);
-    }
+    return stateSnapshot.getState();
+  }
 
-    AtomicReference<String> state = new AtomicReference<>();
-    CountDownLatch l = new CountDownLatch(1);
-    stateChangeRunner.accept(() ->
-    {
-      state.set(gamedata.getString(KEY_STATE));
-      l.countDown();
-    });
-    try
-    {
-      l.await();
-      return state.get();
-    }
-    catch(InterruptedException ex)
+  public StateSnapshot getStateSnapshot()
+  {
+    return stateSnapshot;
+  }
+
+  /**
+   * Liefert den naechsten Status nach der Version {@code version}. Ist der aktuelle
+   * Status bereits neuer, wird er sofort geliefert. Alle Zwischenstaende liefert
+   * {@link StateSnapshot#next()}.
+   */
+  public CompletableFuture<StateSnapshot> nextState(long version)
+  {
+    return firstAfter(stateSnapshot, version);
+  }
+
+  private static CompletableFuture<StateSnapshot> firstAfter(
+      StateSnapshot snapshot, long version)
+  {
+    if(snapshot.getVersion() > version)
     {
-      throw new IllegalStateException(ex);
+      return CompletableFuture.completedFuture(snapshot);
     }
+    return snapshot.next().thenCompose(next -> firstAfter(next, version));
+  }
+
+  private void publishState(String state)
+  {
+    StateSnapshot previous = stateSnapshot;
+    StateSnapshot current = new StateSnapshot(state, previous.getVersion() + 1);
+    stateSnapshot = current;
+    previous.next.complete(current);
   }
 
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2024 nigjo.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.nigjo.battleship;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import de.nigjo.battleship.util.Storage;
+
+/**
+ * Das Spiel, zu dem der aktuelle Thread gerade arbeitet. Damit koennen mehrere Spiele in
+ * einer Laufzeit nebeneinander existieren.
+ *
+ * Aufgaben eines Spiels werden von {@link BattleshipGame} selbst mit dem Spiel
+ * verbunden. Ohne Verbindung wird das Spiel aus {@link Storage#getDefault()} geliefert.
+ *
+ * @author nigjo
+ */
+public final class GameContext
+{
+  private static final ThreadLocal<BattleshipGame> CURRENT = new ThreadLocal<>();
+
+  private GameContext()
+  {
+  }
+
+  public static Optional<BattleshipGame> current()
+  {
+    BattleshipGame bound = CURRENT.get();
+    if(bound != null)
+    {
+      return Optional.of(bound);
+    }
+    return Storage.getDefault().find(BattleshipGame.class);
+  }
+
+  /**
+   * Fuehrt die Aufgabe mit dem Spiel als aktuellem Spiel aus. Danach gilt wieder das
+   * vorherige Spiel.
+   */
+  public static void runWith(BattleshipGame game, Runnable task)
+  {
+    callWith(game, () ->
+    {
+      task.run();
+      return null;
+    });
+  }
+
+  public static <T> T callWith(BattleshipGame game, Supplier<T> task)
+  {
+    BattleshipGame previous = CURRENT.get();
+    CURRENT.set(game);
+    try
+    {
+      return task.get();
+    }
+    finally
+    {
+      if(previous == null)
+      {
+        CURRENT.remove();
+      }
+      else
+      {
+        CURRENT.set(previous);
+      }
+    }
+  }
+
+}
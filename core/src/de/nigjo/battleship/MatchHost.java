@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 nigjo.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.nigjo.battleship;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.nigjo.battleship.util.SerialExecutor;
+
+/**
+ * Betreibt viele Spiele ohne Oberflaeche in einer Laufzeit. Die Statusaenderungen jedes
+ * Spiels laufen nacheinander in einem eigenen {@link SerialExecutor}. Alle Spiele teilen
+ * sich einen Pool mit einer festen Anzahl von Threads.
+ *
+ * Aufgaben eines Spiels duerfen nicht auf ein anderes Spiel warten, sonst sind bei
+ * vielen Spielen schnell alle Threads blockiert. Statt dessen wird mit den
+ * {@link CompletableFuture}s aus {@link #submit(BattleshipGame, GameAction)}
+ * weitergearbeitet.
+ *
+ * @author nigjo
+ */
+public class MatchHost implements AutoCloseable
+{
+  private final ExecutorService pool;
+
+  private static final class DefaultHolder
+  {
+    private static final MatchHost INSTANCE =
+        new MatchHost(Math.max(2, Runtime.getRuntime().availableProcessors()));
+  }
+
+  /**
+   * Der gemeinsame Host fuer alle Spiele ohne Oberflaeche, die mit
+   * {@link BattleshipGame#BattleshipGame(Path)} erstellt werden.
+   */
+  public static MatchHost getDefault()
+  {
+    return DefaultHolder.INSTANCE;
+  }
+
+  public MatchHost(int threads)
+  {
+    AtomicInteger counter = new AtomicInteger();
+    this.pool = Executors.newFixedThreadPool(threads, r ->
+    {
+      Thread t = new Thread(r, "BattleshipGame.stateChanger-" + counter.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  SerialExecutor createSerialExecutor()
+  {
+    return new SerialExecutor(pool);
+  }
+
+  public BattleshipGame createGame(Path playerId)
+  {
+    return new BattleshipGame(playerId, createSerialExecutor());
+  }
+
+  /**
+   * Fuehrt die Aktion im Ausfuehrungsstrang des Spiels aus.
+   *
+   * @return der Status des Spiels, nachdem auch alle von der Aktion ausgeloesten
+   * Statusaenderungen abgearbeitet sind.
+   * @throws IllegalArgumentException wenn das Spiel nicht von einem Host betrieben wird.
+   */
+  public CompletableFuture<String> submit(BattleshipGame game, GameAction action)
+  {
+    SerialExecutor serial = game.getData(SerialExecutor.class);
+    if(serial == null)
+    {
+      throw new IllegalArgumentException("game is not hosted");
+    }
+    CompletableFuture<String> done = new CompletableFuture<>();
+    serial.execute(() -> GameContext.runWith(game, () ->
+    {
+      try
+      {
+        action.run(game);
+      }
+      catch(Exception ex)
+      {
+        done.completeExceptionally(ex);
+        return;
+      }
+      serial.whenIdle(() -> done.complete(game.getState()));
+    }));
+    return done;
+  }
+
+  @Override
+  public void close()
+  {
+    pool.shutdown();
+  }
+
+  @FunctionalInterface
+  public interface GameAction
+  {
+    public void run(BattleshipGame game) throws Exception;
+  }
+
+}
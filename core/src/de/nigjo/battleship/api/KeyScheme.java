@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024 nigjo.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.nigjo.battleship.api;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+
+/**
+ * Verfahren fuer die Schluesselpaare der Spieler. Implementierungen werden per
+ * {@link java.util.ServiceLoader} gefunden und ueber ihren Namen ausgewaehlt. Der Name
+ * wird mit dem oeffentlichen Schluessel im Spielstand abgelegt.
+ *
+ * @author nigjo
+ */
+public interface KeyScheme
+{
+  /**
+   * Name des Verfahrens im Spielstand und in der Schluesseldatei.
+   */
+  public String getName();
+
+  public KeyPair generateKeyPair() throws GeneralSecurityException;
+
+  public PublicKey toPublicKey(byte[] encoded) throws GeneralSecurityException;
+
+  public PrivateKey toPrivateKey(byte[] encoded) throws GeneralSecurityException;
+
+  /**
+   * Erstellt einen Verschluesseler fuer den oeffentlichen Schluessel. Ein Verschluesseler
+   * wird nur von einem Thread gleichzeitig verwendet.
+   */
+  public Encrypter encrypter(PublicKey key) throws GeneralSecurityException;
+
+  /**
+   * Erstellt einen Entschluesseler fuer den privaten Schluessel. Ein Entschluesseler
+   * wird nur von einem Thread gleichzeitig verwendet.
+   */
+  public Decrypter decrypter(PrivateKey key) throws GeneralSecurityException;
+
+  /**
+   * Laenge der verschluesselten Daten fuer {@code plainLength} Bytes.
+   */
+  public int encryptedLength(int plainLength);
+
+  public interface Encrypter
+  {
+    public byte[] encrypt(byte[] plain, int offset, int length)
+        throws GeneralSecurityException;
+  }
+
+  public interface Decrypter
+  {
+    public byte[] decrypt(byte[] data, int offset, int length)
+        throws GeneralSecurityException;
+  }
+}
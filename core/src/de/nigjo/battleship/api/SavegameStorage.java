@@ -15,6 +15,7 @@
  */
 package de.nigjo.battleship.api;
 
+import java.util.Optional;
 import java.util.stream.Stream;
 
 /**
@@ -30,4 +31,31 @@ public interface SavegameStorage
   }
 
   public void storeLines(Stream<String> map);
+
+  /**
+   * Haengt Zeilen an den zuletzt gespeicherten oder gelesenen Stand an. Speicher, die
+   * das nicht unterstuetzen, liefern {@code false}. Dann wird der komplette Spielstand
+   * mit {@link #storeLines(Stream)} geschrieben.
+   *
+   * @param lines neue Zeilen.
+   *
+   * @return {@code true}, wenn die Zeilen angehaengt wurden.
+   */
+  default boolean appendLines(Stream<String> lines)
+  {
+    return false;
+  }
+
+  /**
+   * Liefert nur die Zeilen, die seit dem letzten Lesen oder Schreiben hinzugekommen
+   * sind. Ist das nicht moeglich, weil der Speicher das nicht unterstuetzt oder der
+   * Spielstand von aussen komplett ersetzt wurde, wird ein leeres Optional geliefert.
+   * Dann muss der Spielstand mit {@link #getLines()} neu gelesen werden.
+   *
+   * @return neue Zeilen, wenn sie sich ermitteln lassen.
+   */
+  default Optional<Stream<String>> getNewLines()
+  {
+    return Optional.empty();
+  }
 }
@@ -18,6 +18,7 @@ package de.nigjo.battleship.api;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import de.nigjo.battleship.GameContext;
 import de.nigjo.battleship.util.Storage;
 
 /**
@@ -26,9 +27,15 @@ import de.nigjo.battleship.util.Storage;
  */
 public interface StatusDisplayer
 {
+  /**
+   * Die Statusanzeige des aktuellen Spiels aus dem {@link GameContext}. Hat es keine
+   * eigene Anzeige, wird die Anzeige aus {@link Storage#getDefault()} verwendet.
+   */
   public static StatusDisplayer getDefault()
   {
-    return Storage.getDefault().find(StatusDisplayer.class)
+    return GameContext.current()
+        .map(game -> game.getData(StatusDisplayer.class))
+        .or(() -> Storage.getDefault().find(StatusDisplayer.class))
         .orElseGet(() -> s
         -> Logger.getLogger(StatusDisplayer.class.getName()).log(Level.INFO, "{0}", s));
   }
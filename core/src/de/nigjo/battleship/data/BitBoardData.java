@@ -0,0 +1,157 @@
+/*
+ * Copyright 2024 nigjo.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.nigjo.battleship.data;
+
+import java.util.Random;
+
+/**
+ * Spielbrett fuer grosse Bretter. Jedes Statusbit wird in einer eigenen Bitebene
+ * ({@code long[]}) gespeichert. Die Schiffs-IDs liegen in einer separaten Tabelle, die
+ * erst angelegt wird, wenn das erste Schiff platziert wird.
+ *
+ * Das Textformat von {@link #toString()} und {@link #parse(CharSequence)} ist
+ * identisch zu {@link BoardData}.
+ *
+ * @author nigjo
+ */
+public class BitBoardData extends BoardData
+{
+  private static final int MAX_SHIP_ID = Character.MAX_VALUE;
+
+  private final long[] shootedAt;
+  private final long[] shipStart;
+  private final long[] shipEnd;
+  private final long[] vertical;
+  private char[] shipIds;
+
+  public BitBoardData(int size)
+  {
+    super(size, null);
+    int words = (size * size + Long.SIZE - 1) / Long.SIZE;
+    shootedAt = new long[words];
+    shipStart = new long[words];
+    shipEnd = new long[words];
+    vertical = new long[words];
+  }
+
+  @Override
+  int cell(int index)
+  {
+    int word = index >>> 6;
+    long mask = 1L << index;
+    int value = 0;
+    if((shootedAt[word] & mask) != 0)
+    {
+      value |= SHOOTED_AT;
+    }
+    if((shipStart[word] & mask) != 0)
+    {
+      value |= SHIP_START;
+    }
+    if((shipEnd[word] & mask) != 0)
+    {
+      value |= SHIP_END;
+    }
+    if((vertical[word] & mask) != 0)
+    {
+      value |= VERTICAL;
+    }
+    if(shipIds != null)
+    {
+      value |= shipIds[index] << ID_SHIFT;
+    }
+    return value;
+  }
+
+  @Override
+  void setCell(int index, int value)
+  {
+    int word = index >>> 6;
+    long mask = 1L << index;
+    shootedAt[word] = update(shootedAt[word], mask, value & SHOOTED_AT);
+    shipStart[word] = update(shipStart[word], mask, value & SHIP_START);
+    shipEnd[word] = update(shipEnd[word], mask, value & SHIP_END);
+    vertical[word] = update(vertical[word], mask, value & VERTICAL);
+
+    int shipId = value >>> ID_SHIFT;
+    if(shipId > MAX_SHIP_ID)
+    {
+      throw new IllegalArgumentException("ship id " + shipId + " is too large");
+    }
+    if(shipIds == null && shipId != 0)
+    {
+      shipIds = new char[getSize() * getSize()];
+    }
+    if(shipIds != null)
+    {
+      shipIds[index] = (char)shipId;
+    }
+  }
+
+  private static long update(long bits, long mask, int set)
+  {
+    return set != 0 ? bits | mask : bits & ~mask;
+  }
+
+  @Override
+  public int remainingShipCells()
+  {
+    int count = 0;
+    for(int i = 0; i < shootedAt.length; i++)
+    {
+      count += Long.bitCount((shipStart[i] | shipEnd[i]) & ~shootedAt[i]);
+    }
+    return count;
+  }
+
+  @Override
+  public int unshotCells()
+  {
+    int count = 0;
+    for(long bits : shootedAt)
+    {
+      count += Long.bitCount(bits);
+    }
+    return getSize() * getSize() - count;
+  }
+
+  @Override
+  public int hitCount()
+  {
+    int count = 0;
+    for(int i = 0; i < shootedAt.length; i++)
+    {
+      count += Long.bitCount((shipStart[i] | shipEnd[i]) & shootedAt[i]);
+    }
+    return count;
+  }
+
+  public static BitBoardData parse(CharSequence boarddata)
+  {
+    return parse(boarddata, BitBoardData::new);
+  }
+
+  public static BitBoardData parse(byte[] boarddata, int offset, int length)
+  {
+    return parse(boarddata, offset, length, BitBoardData::new);
+  }
+
+  public static BitBoardData generateRandom(int size, Random rnd, int... ships)
+  {
+    return generateRandom(size, rnd, BitBoardData::new, ships);
+  }
+
+}
@@ -15,7 +15,10 @@
  */
 package de.nigjo.battleship.data;
 
+import java.nio.CharBuffer;
+import java.util.Arrays;
 import java.util.Random;
+import java.util.function.IntFunction;
 
 /**
  * Speichert den Status des Spielbrettes eines Spielers. Änderungen an dieser Instanz
@@ -33,6 +36,7 @@ public class BoardData
   public static final int[] GAME_SIMPLE = mkgame(5, 4, 3, 3, 2);
   //                                    012345678901234567890123456789
   private static final char[] STATUS = ".-WwEeHh?-NnSsVv".toCharArray();
+  private static final byte[] STATUS_LOOKUP = createStatusLookup();
   public static final int UNKNOWN = 0;
   public static final int SHOOTED_AT = 1; //=1
   public static final int SHIP_START = 1 << 1;
@@ -54,10 +58,32 @@ public class BoardData
   private final int size;
   private boolean opponent;
 
+  /** Anzahl der Felder je Schiffs-ID. */
+  private int[] shipCells = new int[0];
+  /** Index des ersten Feldes je Schiffs-ID. */
+  private int[] shipStart = new int[0];
+  /** Abstand der Felder je Schiffs-ID: {@code 1} waagerecht, {@code size} senkrecht. */
+  private int[] shipStep = new int[0];
+  private int placedShips;
+  /** Anzahl der noch nicht getroffenen Felder je Schiffs-ID. */
+  private int[] shipRemaining = new int[0];
+  private int remainingShips;
+  private int unhitShipCells;
+  private boolean fleetKnown;
+
   public BoardData(int size)
+  {
+    this(size, new int[size * size]);
+  }
+
+  /**
+   * Konstruktor fuer alternative Speicherformen. Wird kein {@code board} angegeben, muss
+   * die Unterklasse {@link #cell(int)} und {@link #setCell(int, int)} ueberschreiben.
+   */
+  BoardData(int size, int[] board)
   {
     this.size = size;
-    board = new int[size * size];
+    this.board = board;
   }
 
   private static int[] mkgame(int... ships)
@@ -65,19 +91,112 @@ public class BoardData
     return ships;
   }
 
+  private static byte[] createStatusLookup()
+  {
+    byte[] lookup = new byte[128];
+    Arrays.fill(lookup, (byte)-1);
+    //rueckwaerts, damit doppelte Zeichen ('-') den ersten Status liefern.
+    for(int i = STATUS.length - 1; i >= 0; i--)
+    {
+      lookup[STATUS[i]] = (byte)i;
+    }
+    return lookup;
+  }
+
+  private static int statusOf(int c)
+  {
+    int value = c >= 0 && c < STATUS_LOOKUP.length ? STATUS_LOOKUP[c] : -1;
+    if(value < 0)
+    {
+      throw new IllegalArgumentException("invalid board data character '" + (char)c + "'");
+    }
+    return value;
+  }
+
   public int getSize()
   {
     return size;
   }
 
+  /**
+   * Liefert den vollstaendigen Wert einer Zelle (Status und Schiffs-ID).
+   *
+   * @param index Index der Zelle ({@code y * size + x}).
+   */
+  int cell(int index)
+  {
+    return board[index];
+  }
+
+  /**
+   * Setzt den vollstaendigen Wert einer Zelle (Status und Schiffs-ID).
+   *
+   * @param index Index der Zelle ({@code y * size + x}).
+   * @param value neuer Wert der Zelle.
+   */
+  void setCell(int index, int value)
+  {
+    board[index] = value;
+  }
+
   public int shipIdAt(int x, int y)
   {
-    return board[y * size + x] >>> ID_SHIFT;
+    return cell(y * size + x) >>> ID_SHIFT;
   }
 
   public int stateAt(int x, int y)
   {
-    return board[y * size + x] & MAX_STATUS;
+    return cell(y * size + x) & MAX_STATUS;
+  }
+
+  /**
+   * Anzahl der Schiffsfelder, die noch nicht beschossen wurden.
+   */
+  public int remainingShipCells()
+  {
+    int count = 0;
+    for(int i = 0; i < size * size; i++)
+    {
+      int state = cell(i);
+      if((state & SHIP) != 0 && (state & SHOOTED_AT) == 0)
+      {
+        ++count;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Anzahl der Felder, auf die noch nicht geschossen wurde.
+   */
+  public int unshotCells()
+  {
+    int count = 0;
+    for(int i = 0; i < size * size; i++)
+    {
+      if((cell(i) & SHOOTED_AT) == 0)
+      {
+        ++count;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Anzahl der beschossenen Felder, auf denen sich ein Schiff befindet.
+   */
+  public int hitCount()
+  {
+    int count = 0;
+    for(int i = 0; i < size * size; i++)
+    {
+      int state = cell(i);
+      if((state & SHIP) != 0 && (state & SHOOTED_AT) != 0)
+      {
+        ++count;
+      }
+    }
+    return count;
   }
 
   public void placeShip(int shipIndex,
@@ -87,37 +206,170 @@ public class BoardData
     {
       throw new IllegalStateException("board is already in use");
     }
-    if(xstart + (vertical ? 0 : length) > size
+    if(shipIndex < 0)
+    {
+      throw new IllegalArgumentException("invalid ship index " + shipIndex);
+    }
+    if(length < 1)
+    {
+      throw new IllegalArgumentException("invalid ship length " + length);
+    }
+    if(xstart < 0 || ystart < 0
+        || xstart + (vertical ? 0 : length) > size
         || ystart + (vertical ? length : 0) > size)
     {
       throw new IllegalArgumentException("ship can't be places outside board");
     }
-
-    int shipId = (vertical ? SHIP_MID_V : SHIP_MID_H) | (shipIndex << ID_SHIFT);
-
-    int[] backup = new int[board.length];
-    System.arraycopy(board, 0, backup, 0, board.length);
-    for(int i = 0; i < length; i++)
+    if(shipIndex < shipCells.length && shipCells[shipIndex] > 0)
     {
-      int y = vertical ? ystart + i : ystart;
-      int x = vertical ? xstart : (xstart + i);
+      throw new IllegalArgumentException("ship " + shipIndex + " is already placed");
+    }
 
-      if((board[y * size + x] & MAX_STATUS) != 0)
+    int start = ystart * size + xstart;
+    int step = vertical ? size : 1;
+    //Erst pruefen, dann schreiben. So bleibt das Brett bei einer Kollision unveraendert.
+    for(int i = 0, index = start; i < length; i++, index += step)
+    {
+      if((cell(index) & MAX_STATUS) != 0)
       {
-        System.arraycopy(backup, 0, board, 0, board.length);
         throw new IllegalArgumentException("ship collides with placed ship");
       }
-      board[y * size + x] = shipId;
+    }
+
+    int shipId = (vertical ? SHIP_MID_V : SHIP_MID_H) | (shipIndex << ID_SHIFT);
+    for(int i = 0, index = start; i < length; i++, index += step)
+    {
+      int value = shipId;
       if(i == 0)
       {
-        board[y * size + x] ^= SHIP_END;
+        value ^= SHIP_END;
       }
       else if(i == length - 1)
       {
-        board[y * size + x] ^= SHIP_START;
+        value ^= SHIP_START;
       }
+      setCell(index, value);
     }
     hasShips = true;
+    registerShip(shipIndex, start, step, length, length);
+  }
+
+  private void registerShip(int shipIndex, int start, int step, int cells, int unhit)
+  {
+    if(shipIndex >= shipCells.length)
+    {
+      int capacity = Math.max(shipIndex + 1, shipCells.length * 2);
+      shipCells = Arrays.copyOf(shipCells, capacity);
+      shipRemaining = Arrays.copyOf(shipRemaining, capacity);
+      shipStart = Arrays.copyOf(shipStart, capacity);
+      shipStep = Arrays.copyOf(shipStep, capacity);
+    }
+    if(unhit > 0)
+    {
+      ++remainingShips;
+    }
+    ++placedShips;
+    shipCells[shipIndex] = cells;
+    shipRemaining[shipIndex] = unhit;
+    shipStart[shipIndex] = start;
+    shipStep[shipIndex] = step;
+    unhitShipCells += unhit;
+    fleetKnown = true;
+  }
+
+  /**
+   * Entfernt ein zuvor mit {@link #placeShip(int, int, int, int, boolean)} platziertes
+   * Schiff wieder vom Brett. Damit koennen Suchalgorithmen Schiffe ohne Kopie des Brettes
+   * setzen und wieder zuruecknehmen. Es werden nur die Felder dieses Schiffes geaendert.
+   *
+   * @param shipIndex Index des Schiffes wie bei {@code placeShip} angegeben.
+   *
+   * @return {@code true}, wenn das Schiff gefunden und entfernt wurde.
+   */
+  public boolean removeShip(int shipIndex)
+  {
+    if(active)
+    {
+      throw new IllegalStateException("board is already in use");
+    }
+    if(shipIndex < 0 || shipIndex >= shipCells.length || shipCells[shipIndex] == 0)
+    {
+      return false;
+    }
+    int step = shipStep[shipIndex];
+    for(int i = 0, index = shipStart[shipIndex]; i < shipCells[shipIndex];
+        i++, index += step)
+    {
+      setCell(index, UNKNOWN);
+    }
+    if(shipRemaining[shipIndex] > 0)
+    {
+      --remainingShips;
+    }
+    unhitShipCells -= shipRemaining[shipIndex];
+    shipCells[shipIndex] = 0;
+    shipRemaining[shipIndex] = 0;
+    --placedShips;
+    hasShips = placedShips > 0;
+    fleetKnown = hasShips;
+    return true;
+  }
+
+  /**
+   * Legt die Flotte fuer ein gegnerisches Brett fest. Die Positionen der Schiffe sind
+   * unbekannt, aber anhand der Anzahl Schiffsfelder kann {@link #allSunk()} erkennen, ob
+   * alle Schiffe getroffen wurden.
+   */
+  public void setFleet(int... ships)
+  {
+    if(hasShips)
+    {
+      throw new IllegalStateException("this is your own board");
+    }
+    int cells = 0;
+    for(int ship : ships)
+    {
+      cells += ship;
+    }
+    int hits = 0;
+    for(int i = 0; i < size * size; i++)
+    {
+      if((cell(i) & SHIP) != 0)
+      {
+        ++hits;
+      }
+    }
+    unhitShipCells = Math.max(0, cells - hits);
+    remainingShips = 0;
+    fleetKnown = true;
+  }
+
+  /**
+   * Prueft, ob alle Felder eines Schiffes getroffen wurden. Nur fuer Schiffe, die auf
+   * diesem Brett platziert wurden.
+   */
+  public boolean isSunk(int shipId)
+  {
+    return shipId >= 0 && shipId < shipCells.length
+        && shipCells[shipId] > 0 && shipRemaining[shipId] == 0;
+  }
+
+  /**
+   * Anzahl der eigenen Schiffe, die noch nicht versenkt wurden. Fuer ein gegnerisches
+   * Brett sind die Schiffe nicht bekannt. Dort ist der Wert immer {@code 0}.
+   */
+  public int remainingShips()
+  {
+    return remainingShips;
+  }
+
+  /**
+   * Prueft, ob alle Schiffe auf diesem Brett versenkt wurden. Ohne platzierte Schiffe
+   * oder {@link #setFleet(int...) Flotte} ist das Ergebnis immer {@code false}.
+   */
+  public boolean allSunk()
+  {
+    return fleetKnown && unhitShipCells == 0;
   }
 
   public void markResult(int x, int y, boolean hit)
@@ -127,19 +379,44 @@ public class BoardData
       throw new IllegalStateException("this is your own board");
     }
     active = true;
-    board[y * size + x] |= (hit ? SHIP : 0) + SHOOTED_AT;
+    int index = y * size + x;
+    int old = cell(index);
+    if(hit && (old & SHIP) == 0 && unhitShipCells > 0)
+    {
+      --unhitShipCells;
+    }
+    setCell(index, old | ((hit ? SHIP : 0) + SHOOTED_AT));
   }
 
   public boolean shootAt(int x, int y)
   {
     active = true;
-    board[y * size + x] |= SHOOTED_AT;
+    int index = y * size + x;
+    int old = cell(index);
+    int value = old | SHOOTED_AT;
     if(opponent)
     {
-      board[y * size + x] |= VERTICAL;
+      value |= VERTICAL;
+    }
+    setCell(index, value);
+    if((old & SHIP) != 0 && (old & SHOOTED_AT) == 0)
+    {
+      registerHit(old >>> ID_SHIFT);
     }
 
-    return (board[y * size + x] & SHIP) > 0;
+    return (value & SHIP) > 0;
+  }
+
+  private void registerHit(int shipId)
+  {
+    if(shipId < shipRemaining.length && shipRemaining[shipId] > 0)
+    {
+      --unhitShipCells;
+      if(--shipRemaining[shipId] == 0)
+      {
+        --remainingShips;
+      }
+    }
   }
 
   @Override
@@ -147,64 +424,174 @@ public class BoardData
   {
     //char[] state = "·-SX".toCharArray();
 
-    char[] data = new char[board.length];
-    for(int i = 0; i < board.length; i++)
+    char[] data = new char[size * size];
+    for(int i = 0; i < data.length; i++)
     {
-      data[i] = STATUS[board[i] & MAX_STATUS];
+      data[i] = STATUS[cell(i) & MAX_STATUS];
     }
     return new String(data);
   }
 
-  public static BoardData parse(String boarddata)
+  /**
+   * Schreibt das Brett im Format von {@link #toString()} in den Puffer.
+   *
+   * @param target Ziel mit mindestens {@code size*size} freien Zeichen.
+   */
+  public void writeTo(CharBuffer target)
+  {
+    for(int i = 0; i < size * size; i++)
+    {
+      target.put(STATUS[cell(i) & MAX_STATUS]);
+    }
+  }
+
+  /**
+   * Schreibt das Brett im Format von {@link #toString()} als ASCII-Bytes in das Array.
+   *
+   * @param target Ziel mit mindestens {@code offset+size*size} Bytes.
+   * @param offset erste zu beschreibende Position.
+   *
+   * @return Anzahl der geschriebenen Bytes.
+   */
+  public int writeTo(byte[] target, int offset)
+  {
+    int length = size * size;
+    for(int i = 0; i < length; i++)
+    {
+      target[offset + i] = (byte)STATUS[cell(i) & MAX_STATUS];
+    }
+    return length;
+  }
+
+  /**
+   * Liest ein Brett im Format von {@link #toString()}. Ein {@link CharBuffer} kann direkt
+   * uebergeben werden.
+   */
+  public static BoardData parse(CharSequence boarddata)
+  {
+    return parse(boarddata, BoardData::new);
+  }
+
+  /**
+   * Liest ein Brett im Format von {@link #toString()} aus ASCII-Bytes.
+   */
+  public static BoardData parse(byte[] boarddata, int offset, int length)
+  {
+    return parse(boarddata, offset, length, BoardData::new);
+  }
+
+  static <B extends BoardData> B parse(CharSequence boarddata, IntFunction<B> factory)
   {
     //·=empty, -=miss, S=Ship, X=hit
-    int size = (int)Math.sqrt(boarddata.length());
-    if(size * size != boarddata.length())
+    B parsed = factory.apply(boardSize(boarddata.length()));
+    BoardData data = parsed;
+    for(int i = 0; i < data.size * data.size; i++)
     {
-      throw new IllegalArgumentException("invalid board data length");
+      data.initCell(i, statusOf(boarddata.charAt(i)));
     }
+    data.indexShips();
+
+    return parsed;
+  }
 
-    String state = new String(STATUS);
-    BoardData data = new BoardData(size);
-    for(int i = 0; i < data.board.length; i++)
+  static <B extends BoardData> B parse(byte[] boarddata, int offset, int length,
+      IntFunction<B> factory)
+  {
+    B parsed = factory.apply(boardSize(length));
+    BoardData data = parsed;
+    for(int i = 0; i < length; i++)
     {
-      data.board[i] = state.indexOf(boarddata.charAt(i));
-      data.hasShips |= (data.board[i] & SHIP) != 0;
+      data.initCell(i, statusOf(boarddata[offset + i]));
     }
+    data.indexShips();
 
-    return data;
+    return parsed;
   }
 
-  public static BoardData generateRandom(int size, int... ships)
+  private static int boardSize(int length)
   {
-    return generateRandom(size, System.currentTimeMillis(), ships);
+    int size = (int)Math.sqrt(length);
+    if(size * size != length)
+    {
+      throw new IllegalArgumentException("invalid board data length");
+    }
+    return size;
   }
 
-  public static BoardData generateRandom(int size, long seed, int... ships)
+  private void initCell(int index, int value)
   {
-    return generateRandom(size, new Random(seed), ships);
+    setCell(index, value);
+    hasShips |= (value & SHIP) != 0;
   }
 
-  public static BoardData generateRandom(int size, Random rnd, int... ships)
+  /**
+   * Das Textformat enthaelt keine Schiffs-IDs. Nach dem Einlesen werden die Schiffe
+   * anhand ihrer Bug- und Heckfelder neu durchnummeriert (ab {@code 1}).
+   */
+  private void indexShips()
   {
-    BoardData data = new BoardData(size);
-    int index = 0;
-    for(int ship : ships)
+    int nextId = 1;
+    for(int i = 0; i < size * size; i++)
     {
-      int x = rnd.nextInt(size - ship + 1);
-      int y = rnd.nextInt(size - ship + 1);
-      boolean vertical = rnd.nextBoolean();
-      try
+      int value = cell(i);
+      if((value & SHIP) != SHIP_START || (value >>> ID_SHIFT) != 0)
       {
-        data.placeShip(++index, x, y, ship, vertical);
+        continue;
       }
-      catch(IllegalArgumentException ex)
+      boolean vertical = (value & VERTICAL) != 0;
+      int step = vertical ? size : 1;
+      int shipId = nextId++;
+      int cells = 0;
+      int unhit = 0;
+      int index = i;
+      while(true)
       {
-        //unable to place ship; next try
-        return generateRandom(size, rnd, ships);
+        value = cell(index);
+        setCell(index, value | (shipId << ID_SHIFT));
+        ++cells;
+        if((value & SHOOTED_AT) == 0)
+        {
+          ++unhit;
+        }
+        int next = index + step;
+        if((value & SHIP) == SHIP_END
+            || next >= size * size || (!vertical && next % size == 0))
+        {
+          break;
+        }
+        int nextValue = cell(next);
+        if((nextValue & SHIP_END) == 0
+            || ((nextValue & VERTICAL) != 0) != vertical
+            || (nextValue >>> ID_SHIFT) != 0)
+        {
+          break;
+        }
+        index = next;
       }
+      registerShip(shipId, i, step, cells, unhit);
     }
+  }
+
+  public static BoardData generateRandom(int size, int... ships)
+  {
+    return generateRandom(size, System.currentTimeMillis(), ships);
+  }
 
+  public static BoardData generateRandom(int size, long seed, int... ships)
+  {
+    return generateRandom(size, new Random(seed), ships);
+  }
+
+  public static BoardData generateRandom(int size, Random rnd, int... ships)
+  {
+    return generateRandom(size, rnd, BoardData::new, ships);
+  }
+
+  static <B extends BoardData> B generateRandom(int size, Random rnd,
+      IntFunction<B> factory, int... ships)
+  {
+    B data = factory.apply(size);
+    FleetGenerator.placeAll(data, rnd, ships);
     return data;
   }
 
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2024 nigjo.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.nigjo.battleship.data;
+
+import java.util.Random;
+
+/**
+ * Sucht eine zufaellige Aufstellung fuer eine Flotte. Fuer jedes Schiff werden alle
+ * freien Positionen anhand einer Belegungsmaske ermittelt und daraus zufaellig eine
+ * gewaehlt. Gibt es fuer ein Schiff keine Position mehr, wird nur das vorherige Schiff
+ * umgesetzt (Backtracking).
+ *
+ * @author nigjo
+ */
+final class FleetGenerator
+{
+  private final int size;
+  private final int[] ships;
+  private final long[] occupied;
+  private final int[][] candidates;
+  private final int[] remaining;
+  private final int[] chosen;
+
+  private FleetGenerator(int size, int[] ships)
+  {
+    this.size = size;
+    this.ships = ships;
+    this.occupied = new long[(size * size + Long.SIZE - 1) / Long.SIZE];
+    this.candidates = new int[ships.length][];
+    this.remaining = new int[ships.length];
+    this.chosen = new int[ships.length];
+  }
+
+  /**
+   * Platziert alle Schiffe zufaellig auf dem (leeren) Spielbrett. Die Schiffe erhalten
+   * die IDs {@code 1} bis {@code ships.length}.
+   *
+   * @throws IllegalArgumentException wenn es keine gueltige Aufstellung gibt.
+   */
+  static void placeAll(BoardData data, Random rnd, int... ships)
+  {
+    checkFeasible(data.getSize(), ships);
+    FleetGenerator generator = new FleetGenerator(data.getSize(), ships);
+    generator.search(rnd);
+    for(int i = 0; i < ships.length; i++)
+    {
+      int position = generator.chosen[i];
+      int index = position >>> 1;
+      data.placeShip(i + 1, index % data.getSize(), index / data.getSize(),
+          ships[i], (position & 1) != 0);
+    }
+  }
+
+  /**
+   * Schnelle Vorpruefung, damit offensichtlich unmoegliche Flotten nicht erst die ganze
+   * Suche durchlaufen. Schiffe duerfen sich beruehren, es zaehlen also nur die
+   * Schiffsfelder selbst.
+   */
+  private static void checkFeasible(int size, int[] ships)
+  {
+    long cells = 0;
+    for(int length : ships)
+    {
+      if(length < 1 || length > size)
+      {
+        throw new IllegalArgumentException("invalid ship length " + length);
+      }
+      cells += length;
+    }
+    if(cells > (long)size * size)
+    {
+      throw new IllegalArgumentException(
+          "ships need " + cells + " cells, board has " + size * size);
+    }
+  }
+
+  private void search(Random rnd)
+  {
+    int current = 0;
+    collectCandidates(current);
+    while(current < ships.length)
+    {
+      if(remaining[current] == 0)
+      {
+        //Kein Platz fuer dieses Schiff. Vorheriges Schiff umsetzen.
+        --current;
+        if(current < 0)
+        {
+          throw new IllegalArgumentException("no valid placement exists for ships");
+        }
+        mark(chosen[current], ships[current], false);
+        continue;
+      }
+
+      //zufaellige Position waehlen und aus den Kandidaten entfernen.
+      int pick = rnd.nextInt(remaining[current]);
+      int[] positions = candidates[current];
+      chosen[current] = positions[pick];
+      positions[pick] = positions[--remaining[current]];
+      mark(chosen[current], ships[current], true);
+
+      ++current;
+      if(current < ships.length)
+      {
+        collectCandidates(current);
+      }
+    }
+  }
+
+  private void collectCandidates(int ship)
+  {
+    int length = ships[ship];
+    if(candidates[ship] == null)
+    {
+      candidates[ship] = new int[size * size * 2];
+    }
+    int[] positions = candidates[ship];
+    int count = 0;
+    for(int y = 0; y < size; y++)
+    {
+      for(int x = 0; x < size; x++)
+      {
+        int index = y * size + x;
+        if(x + length <= size && isFree(index, length, 1))
+        {
+          positions[count++] = index << 1;
+        }
+        if(y + length <= size && isFree(index, length, size))
+        {
+          positions[count++] = (index << 1) | 1;
+        }
+      }
+    }
+    remaining[ship] = count;
+  }
+
+  private boolean isFree(int start, int length, int step)
+  {
+    for(int i = 0, index = start; i < length; i++, index += step)
+    {
+      if((occupied[index >>> 6] & (1L << index)) != 0)
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void mark(int position, int length, boolean set)
+  {
+    int step = (position & 1) != 0 ? size : 1;
+    for(int i = 0, index = position >>> 1; i < length; i++, index += step)
+    {
+      if(set)
+      {
+        occupied[index >>> 6] |= 1L << index;
+      }
+      else
+      {
+        occupied[index >>> 6] &= ~(1L << index);
+      }
+    }
+  }
+
+}
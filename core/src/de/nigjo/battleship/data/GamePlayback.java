@@ -15,7 +15,13 @@
  */
 package de.nigjo.battleship.data;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  *
@@ -23,9 +29,14 @@ import java.util.List;
  */
 public class GamePlayback
 {
+  /** Anzahl der Records, die in einer Aufgabe entschluesselt werden. */
+  private static final int CHUNK_SIZE = 16;
+
   private final Savegame savegame;
   private int playerid;
   private KeyManager playerKeys;
+  private int firstRecord;
+  private Executor decoder = ForkJoinPool.commonPool();
 
   private GamePlayback(Savegame savegame)
   {
@@ -49,50 +60,160 @@ public class GamePlayback
     return this;
   }
 
+  /**
+   * Spielt nur die Records ab der angegebenen Position ab. Alle vorherigen Records sind
+   * bereits auf dem Spielbrett vorhanden.
+   *
+   * @param firstRecord Position des ersten neuen Records.
+   */
+  public GamePlayback since(int firstRecord)
+  {
+    if(firstRecord < 0)
+    {
+      throw new IllegalArgumentException("invalid record position " + firstRecord);
+    }
+    this.firstRecord = firstRecord;
+    return this;
+  }
+
+  /**
+   * Legt fest, auf welchem Executor die Records entschluesselt werden. Standard ist der
+   * gemeinsame {@link ForkJoinPool}. Mit {@code Runnable::run} wird alles im
+   * aufrufenden Thread entschluesselt.
+   */
+  public GamePlayback using(Executor decoder)
+  {
+    this.decoder = Objects.requireNonNull(decoder);
+    return this;
+  }
+
   public void to(BoardData data)
   {
-    List<Savegame.Record> records = validateInput();
+    playback(validateInput(), data);
+  }
+
+  /**
+   * Spielt den Spielstand in einem Durchlauf auf beide Spielbretter ab. ATTACK Records
+   * gehen auf das eigene, RESULT Records auf das gegnerische Spielbrett. Jeder Record
+   * wird nur einmal entschluesselt.
+   */
+  public void toBoth(BoardData own, BoardData opponent)
+  {
+    if(own.isOpponent() || !opponent.isOpponent())
+    {
+      throw new IllegalArgumentException("expected own and opponent board");
+    }
+    playback(validateInput(), own, opponent);
+  }
 
+  /**
+   * Sammelt alle Records, die dieser Spieler fuer die Spielbretter entschluesseln muss,
+   * entschluesselt sie parallel und uebertraegt sie dann in der Reihenfolge des
+   * Spielstandes auf die Spielbretter.
+   */
+  private void playback(List<Savegame.Record> records, BoardData... boards)
+  {
+    boolean ownBoard = false;
+    boolean opponentBoard = false;
+    for(BoardData board : boards)
+    {
+      ownBoard |= !board.isOpponent();
+      opponentBoard |= board.isOpponent();
+    }
+
+    List<Savegame.Record> relevant = new ArrayList<>();
     for(Savegame.Record record : records)
     {
       if(record.getPlayerid() != playerid)
       {
         continue;
       }
-
-      String encoded = record.getPayload();
       switch(record.getKind())
       {
         case Savegame.Record.VERSION:
         case Savegame.Record.CONFIG:
         case Savegame.Record.PLAYER:
         case Savegame.Record.BOARD:
+        case Savegame.Record.KEY:
         case Savegame.Record.MESSAGE:
           //ignore here
           break;
         case Savegame.Record.ATTACK:
-          if(!data.isOpponent())
+          if(ownBoard)
           {
-            String payload = playerKeys.decode(encoded);
-            String[] pair = payload.split(",");
-
-            data.shootAt(Integer.parseInt(pair[0]), Integer.parseInt(pair[1]));
+            relevant.add(record);
           }
           break;
-
         case Savegame.Record.RESULT:
-          if(data.isOpponent())
+          if(opponentBoard)
           {
-            String payload = playerKeys.decode(encoded);
-            String[] pair = payload.split(",");
-            boolean hit = Boolean.parseBoolean(pair[2]);
-
-            data.markResult(Integer.parseInt(pair[0]),
-                Integer.parseInt(pair[1]), hit);
+            relevant.add(record);
           }
           break;
       }
     }
+
+    String[] decoded = decodeAll(relevant);
+
+    for(int i = 0; i < decoded.length; i++)
+    {
+      String[] pair = decoded[i].split(",");
+      int x = Integer.parseInt(pair[0]);
+      int y = Integer.parseInt(pair[1]);
+      boolean attack = Savegame.Record.ATTACK.equals(relevant.get(i).getKind());
+      for(BoardData data : boards)
+      {
+        if(attack && !data.isOpponent())
+        {
+          data.shootAt(x, y);
+        }
+        else if(!attack && data.isOpponent())
+        {
+          data.markResult(x, y, Boolean.parseBoolean(pair[2]));
+        }
+      }
+    }
+  }
+
+  private String[] decodeAll(List<Savegame.Record> relevant)
+  {
+    String[] decoded = new String[relevant.size()];
+    if(decoded.length < CHUNK_SIZE)
+    {
+      decodeRange(relevant, decoded, 0, decoded.length);
+      return decoded;
+    }
+
+    List<CompletableFuture<Void>> chunks = new ArrayList<>();
+    for(int start = 0; start < decoded.length; start += CHUNK_SIZE)
+    {
+      int from = start;
+      int to = Math.min(decoded.length, start + CHUNK_SIZE);
+      chunks.add(CompletableFuture.runAsync(
+          () -> decodeRange(relevant, decoded, from, to), decoder));
+    }
+    try
+    {
+      CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+    }
+    catch(CompletionException ex)
+    {
+      if(ex.getCause() instanceof RuntimeException)
+      {
+        throw (RuntimeException)ex.getCause();
+      }
+      throw ex;
+    }
+    return decoded;
+  }
+
+  private void decodeRange(List<Savegame.Record> relevant, String[] decoded,
+      int from, int to)
+  {
+    for(int i = from; i < to; i++)
+    {
+      decoded[i] = savegame.decodePayload(relevant.get(i), playerKeys);
+    }
   }
 
   private List<Savegame.Record> validateInput() throws IllegalArgumentException
@@ -110,19 +231,24 @@ public class GamePlayback
       throw new IllegalArgumentException("missing player id");
     }
 
-    List<Savegame.Record> records = savegame.allRecords();
-    Savegame.Record first = records.get(0);
-    if(!Savegame.Record.VERSION.equals(first.getKind()))
-    {
-      throw new IllegalStateException("no game version found.");
-    }
-    int version = Integer.parseInt(first.getPayload());
-    if(version != 0)
+    int version = savegame.getVersion();
+    switch(version)
     {
-      throw new IllegalStateException("unknown game version " + version);
+      case 0:
+        //Alles direkt mit RSA verschluesselt.
+        break;
+      case 1:
+      case 2:
+        if(!playerKeys.hasSessionKey())
+        {
+          throw new IllegalStateException("missing session key for player " + playerid);
+        }
+        break;
+      default:
+        throw new IllegalStateException("unknown game version " + version);
     }
 
-    return records;
+    return savegame.recordsSince(Math.min(firstRecord, savegame.recordCount()));
   }
 
 }
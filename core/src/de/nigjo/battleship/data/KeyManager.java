@@ -17,30 +17,39 @@ package de.nigjo.battleship.data;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.GeneralSecurityException;
-import java.security.KeyFactory;
 import java.security.KeyPair;
-import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.PublicKey;
-import java.security.spec.EncodedKeySpec;
-import java.security.spec.PKCS8EncodedKeySpec;
-import java.security.spec.X509EncodedKeySpec;
+import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import de.nigjo.battleship.api.KeyScheme;
 
 //    KeyManager km = gamedata.get("keymanager.self", KeyManager.class);
 //    String encoded = km.encode("Hallo Welt!");
@@ -59,15 +68,79 @@ public class KeyManager
   public static final String KEY_MANAGER_SELF = "KeyManager.self";
   public static final String KEY_MANAGER_OPPONENT = "KeyManager.opponent";
 
+  /**
+   * Systemeigenschaft mit dem Namen des Verfahrens fuer neue Schluessel.
+   */
+  public static final String KEY_SCHEME_PROPERTY = KeyManager.class.getName() + ".scheme";
+  /**
+   * Verfahren fuer neue Schluessel. Bestehende Spielstaende und Schluesseldateien
+   * verwenden ohne Angabe immer dieses Verfahren.
+   */
+  public static final String DEFAULT_SCHEME = "RSA";
+  /** Schluesseldateien anderer Verfahren beginnen mit dieser Markierung. */
+  private static final int SCHEME_MARKER = -1;
+  private static final Map<String, KeyScheme> SCHEMES = new ConcurrentHashMap<>();
+
+  private KeyScheme scheme;
   private PrivateKey own;
   private PublicKey playerKey;
-  private static final int KEY_LENGTH = 1024; // enough for this game. No real security
-  private static final int BLOCK_SIZE = 72;
+  /**
+   * Ver- und Entschluesseler je Thread. Sie werden fuer den naechsten Record
+   * wiederverwendet.
+   */
+  private final ThreadLocal<KeyScheme.Encrypter> encrypter = new ThreadLocal<>();
+  private final ThreadLocal<KeyScheme.Decrypter> decrypter = new ThreadLocal<>();
+
+  /** Laenge der AES Sitzungsschluessel in Bytes. */
+  private static final int SESSION_KEY_LENGTH = 16;
+  private static final int IV_LENGTH = 12;
+  private static final int TAG_LENGTH = 128;
+  private static final SecureRandom RANDOM = new SecureRandom();
+  /** AES Cipher je Thread. Wird fuer jeden Record neu initialisiert. */
+  private static final ThreadLocal<Cipher> SESSION_CIPHER = new ThreadLocal<>();
+  /**
+   * AES Schluessel fuer die Records an den Besitzer dieses Schluessels (ab
+   * Spielstandversion 1).
+   */
+  private volatile SecretKey sessionKey;
+  private static final int FINGERPRINT_BYTES = 8;
+  private static final char[] BASE64 =
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+  private static final int[] BASE64_VALUES = new int[128];
+  /** Anzahl der Base64 Zeichen, die auf einmal angehaengt werden. */
+  private static final int BASE64_CHUNK = 256;
+  private static final int MIN_SCRATCH_SIZE = 512;
+  /** Dekodierte, noch verschluesselte Daten je Thread. */
+  private static final ThreadLocal<ByteBuffer> ENCRYPTED_BUFFER = new ThreadLocal<>();
+  /** Entschluesselte Daten je Thread fuer {@link #decode(CharSequence)}. */
+  private static final ThreadLocal<ByteBuffer> PLAIN_BUFFER = new ThreadLocal<>();
+
+  static
+  {
+    Arrays.fill(BASE64_VALUES, -1);
+    for(int i = 0; i < BASE64.length; i++)
+    {
+      BASE64_VALUES[BASE64[i]] = i;
+    }
+  }
+  private volatile String fingerprint;
 
   /**
-   * Erstellt einen neuen Schlüssel
+   * Erstellt einen neuen Schlüssel. Das Verfahren wird ueber die Systemeigenschaft
+   * {@link #KEY_SCHEME_PROPERTY} ausgewaehlt.
    */
   public KeyManager(Path privateStore)
+  {
+    this(privateStore, System.getProperty(KEY_SCHEME_PROPERTY, DEFAULT_SCHEME));
+  }
+
+  /**
+   * Laedt den Schluessel aus der Datei. Existiert sie nicht, wird ein neuer Schluessel
+   * mit dem angegebenen Verfahren erstellt.
+   *
+   * @throws IllegalArgumentException wenn das Verfahren unbekannt ist.
+   */
+  public KeyManager(Path privateStore, String schemeName)
   {
     if(Files.exists(privateStore))
     {
@@ -75,10 +148,39 @@ public class KeyManager
     }
     else
     {
+      scheme = getScheme(schemeName);
       generateNew(privateStore);
     }
   }
 
+  /**
+   * Sucht ein Verfahren ueber den {@link ServiceLoader}.
+   *
+   * @throws IllegalArgumentException wenn das Verfahren unbekannt ist.
+   */
+  public static KeyScheme getScheme(String name)
+  {
+    KeyScheme found = SCHEMES.get(name);
+    if(found == null)
+    {
+      for(KeyScheme candidate : ServiceLoader.load(KeyScheme.class))
+      {
+        SCHEMES.putIfAbsent(candidate.getName(), candidate);
+      }
+      found = SCHEMES.get(name);
+      if(found == null)
+      {
+        throw new IllegalArgumentException("unknown key scheme " + name);
+      }
+    }
+    return found;
+  }
+
+  public String getSchemeName()
+  {
+    return scheme.getName();
+  }
+
   private void loadFromPrivate(Path privateStore)
   {
     try(InputStream in = new BufferedInputStream(
@@ -87,17 +189,27 @@ public class KeyManager
     {
       byte[] size = in.readNBytes(4);
       int keySize = ByteBuffer.wrap(size).getInt();
+      if(keySize == SCHEME_MARKER)
+      {
+        size = in.readNBytes(4);
+        byte[] name = in.readNBytes(ByteBuffer.wrap(size).getInt());
+        scheme = getScheme(new String(name, StandardCharsets.UTF_8));
+        size = in.readNBytes(4);
+        keySize = ByteBuffer.wrap(size).getInt();
+      }
+      else
+      {
+        //Schluesseldateien ohne Markierung stammen aus der Zeit vor den Verfahren.
+        scheme = getScheme(DEFAULT_SCHEME);
+      }
       byte[] key1data = in.readNBytes(keySize);
 
       size = in.readNBytes(4);
       keySize = ByteBuffer.wrap(size).getInt();
       byte[] key2data = in.readNBytes(keySize);
 
-      KeyFactory keyFactory = KeyFactory.getInstance("RSA");
-      EncodedKeySpec privKeySpec = new PKCS8EncodedKeySpec(key1data);
-      own = keyFactory.generatePrivate(privKeySpec);
-      EncodedKeySpec pubKeySpec = new X509EncodedKeySpec(key2data);
-      playerKey = keyFactory.generatePublic(pubKeySpec);
+      own = scheme.toPrivateKey(key1data);
+      playerKey = scheme.toPublicKey(key2data);
     }
     catch(IOException | GeneralSecurityException ex)
     {
@@ -109,9 +221,7 @@ public class KeyManager
   {
     try
     {
-      KeyPairGenerator gen = KeyPairGenerator.getInstance("RSA");
-      gen.initialize(KEY_LENGTH);
-      KeyPair pair = gen.generateKeyPair();
+      KeyPair pair = scheme.generateKeyPair();
       playerKey = pair.getPublic();
       own = pair.getPrivate();
 
@@ -121,6 +231,14 @@ public class KeyManager
       {
         byte[] encoded;
 
+        if(!DEFAULT_SCHEME.equals(scheme.getName()))
+        {
+          encoded = scheme.getName().getBytes(StandardCharsets.UTF_8);
+          out.write(ByteBuffer.allocate(8)
+              .putInt(SCHEME_MARKER).putInt(encoded.length).array());
+          out.write(encoded);
+        }
+
         encoded = own.getEncoded();
         out.write(ByteBuffer.allocate(4).putInt(encoded.length).array());
         out.write(encoded);
@@ -135,20 +253,27 @@ public class KeyManager
       }
 
     }
-    catch(NoSuchAlgorithmException ex)
+    catch(GeneralSecurityException ex)
     {
       throw new IllegalStateException(ex);
     }
   }
 
+  /**
+   * Oeffentlicher Schluessel aus dem Spielstand.
+   *
+   * @param storedPlayerKey Ergebnis von {@link #getPublicKey()}.
+   */
   public KeyManager(String storedPlayerKey)
   {
+    int schemeEnd = storedPlayerKey.indexOf(':');
+    scheme = getScheme(schemeEnd < 0
+        ? DEFAULT_SCHEME : storedPlayerKey.substring(0, schemeEnd));
     try
     {
-      KeyFactory keyFactory = KeyFactory.getInstance("RSA");
-      byte[] storedKeyData = Base64.getDecoder().decode(storedPlayerKey);
-      EncodedKeySpec pubKeySpec = new X509EncodedKeySpec(storedKeyData);
-      playerKey = keyFactory.generatePublic(pubKeySpec);
+      byte[] storedKeyData =
+          Base64.getDecoder().decode(storedPlayerKey.substring(schemeEnd + 1));
+      playerKey = scheme.toPublicKey(storedKeyData);
     }
     catch(GeneralSecurityException ex)
     {
@@ -156,54 +281,204 @@ public class KeyManager
     }
   }
 
+  /**
+   * Oeffentlicher Schluessel fuer den Spielstand. Bei anderen Verfahren als
+   * {@link #DEFAULT_SCHEME} wird der Name mit einem {@code ':'} vorangestellt. Base64
+   * enthaelt keinen Doppelpunkt.
+   */
   public String getPublicKey()
   {
-    byte[] data = playerKey.getEncoded();
-    return Base64.getEncoder().encodeToString(data);
+    String data = Base64.getEncoder().encodeToString(playerKey.getEncoded());
+    return DEFAULT_SCHEME.equals(scheme.getName()) ? data : scheme.getName() + ':' + data;
+  }
+
+  /**
+   * Kurzer Fingerabdruck des oeffentlichen Schluessels. Die ersten 8 Bytes des SHA-256
+   * Hashes als Hex-String.
+   */
+  public String getFingerprint()
+  {
+    String current = fingerprint;
+    if(current == null)
+    {
+      try
+      {
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(playerKey.getEncoded());
+        StringBuilder hex = new StringBuilder(FINGERPRINT_BYTES * 2);
+        for(int i = 0; i < FINGERPRINT_BYTES; i++)
+        {
+          hex.append(Character.forDigit((hash[i] >> 4) & 0xf, 16))
+              .append(Character.forDigit(hash[i] & 0xf, 16));
+        }
+        current = hex.toString();
+        fingerprint = current;
+      }
+      catch(NoSuchAlgorithmException ex)
+      {
+        throw new IllegalStateException(ex);
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Entschluesselt die Daten. Als Zeichenfolge kann auch eine Sicht auf einen Teil einer
+   * Zeile uebergeben werden, z.B. {@link Savegame.Record#getPayloadSequence()}.
+   */
+  public String decode(CharSequence data)
+  {
+    ByteBuffer encrypted = decodeBase64(data);
+    SecretKey session = sessionKey;
+    if(session == null)
+    {
+      return new String(decryptAsymmetric(encrypted.array(), 0, encrypted.limit()),
+          StandardCharsets.UTF_8);
+    }
+    ByteBuffer plain = scratch(PLAIN_BUFFER, encrypted.limit());
+    decryptSession(session, encrypted, plain);
+    return new String(plain.array(), 0, plain.position(), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Entschluesselt die Base64 Daten in den Puffer {@code target}. Die Base64 Zeichen
+   * werden direkt aus {@code data} in einen Puffer je Thread dekodiert. Bei einem
+   * Sitzungsschluessel schreibt der Cipher von dort direkt in {@code target}.
+   *
+   * @return Anzahl der geschriebenen Bytes.
+   * @throws IllegalArgumentException wenn die Daten nicht entschluesselt werden koennen.
+   * @throws BufferOverflowException wenn {@code target} zu klein ist.
+   */
+  public int decode(CharSequence data, ByteBuffer target)
+  {
+    ByteBuffer encrypted = decodeBase64(data);
+    int start = target.position();
+    SecretKey session = sessionKey;
+    if(session != null)
+    {
+      decryptSession(session, encrypted, target);
+    }
+    else
+    {
+      target.put(decryptAsymmetric(encrypted.array(), 0, encrypted.limit()));
+    }
+    return target.position() - start;
+  }
+
+  /**
+   * Dekodiert Base64 in Gruppen zu 4 Zeichen bzw. 3 Bytes in den Puffer
+   * {@link #ENCRYPTED_BUFFER} dieses Threads.
+   *
+   * @return der Puffer, bereit zum Lesen.
+   */
+  private static ByteBuffer decodeBase64(CharSequence data)
+  {
+    int length = data.length();
+    if(length % 4 != 0)
+    {
+      throw new IllegalArgumentException("invalid base64 length " + length);
+    }
+    ByteBuffer target = scratch(ENCRYPTED_BUFFER, length / 4 * 3);
+    for(int i = 0; i < length; i += 4)
+    {
+      int group = base64Value(data, i) << 18 | base64Value(data, i + 1) << 12;
+      if(data.charAt(i + 3) != '=')
+      {
+        group |= base64Value(data, i + 2) << 6 | base64Value(data, i + 3);
+        target.put((byte)(group >> 16)).put((byte)(group >> 8)).put((byte)group);
+      }
+      else if(i + 4 != length)
+      {
+        throw new IllegalArgumentException("base64 padding before end of data");
+      }
+      else if(data.charAt(i + 2) != '=')
+      {
+        group |= base64Value(data, i + 2) << 6;
+        target.put((byte)(group >> 16)).put((byte)(group >> 8));
+      }
+      else
+      {
+        target.put((byte)(group >> 16));
+      }
+    }
+    return target.flip();
   }
 
-  public String decode(String data)
+  private static int base64Value(CharSequence data, int index)
+  {
+    char c = data.charAt(index);
+    int value = c < BASE64_VALUES.length ? BASE64_VALUES[c] : -1;
+    if(value < 0)
+    {
+      throw new IllegalArgumentException("invalid base64 character " + c);
+    }
+    return value;
+  }
+
+  /**
+   * Liefert den geleerten Puffer dieses Threads mit mindestens {@code capacity} Bytes.
+   */
+  private static ByteBuffer scratch(ThreadLocal<ByteBuffer> buffers, int capacity)
+  {
+    ByteBuffer buffer = buffers.get();
+    if(buffer == null || buffer.capacity() < capacity)
+    {
+      buffer = ByteBuffer.allocate(Math.max(capacity, MIN_SCRATCH_SIZE));
+      buffers.set(buffer);
+    }
+    return buffer.clear();
+  }
+
+  /**
+   * Entschluesselt die Daten ohne sie in einen String umzuwandeln. Ist ein
+   * Sitzungsschluessel gesetzt, wird dieser verwendet.
+   *
+   * @return die unverschluesselten (UTF-8) Bytes.
+   */
+  public byte[] decodeBytes(String data)
+  {
+    SecretKey session = sessionKey;
+    if(session != null)
+    {
+      return decryptSession(session, Base64.getDecoder().decode(data), 0);
+    }
+    byte[] decoded = Base64.getDecoder().decode(data);
+    return decryptAsymmetric(decoded, 0, decoded.length);
+  }
+
+  private byte[] decryptAsymmetric(byte[] data, int offset, int length)
   {
     try
     {
-      Cipher decryptCipher = Cipher.getInstance("RSA");
-      decryptCipher.init(Cipher.DECRYPT_MODE, own);
-      byte[] decoded = Base64.getDecoder().decode(data);
-      int blocksize = KEY_LENGTH / 8;
-      ByteArrayOutputStream buffer = new ByteArrayOutputStream(BLOCK_SIZE << 1);
-      for(int off = 0; off < decoded.length; off += blocksize)
+      KeyScheme.Decrypter current = decrypter.get();
+      if(current == null)
       {
-        byte[] part = decryptCipher.doFinal(decoded, off, blocksize);
-        buffer.writeBytes(part);
+        current = scheme.decrypter(own);
+        decrypter.set(current);
       }
-      return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+      return current.decrypt(data, offset, length);
     }
-    catch(GeneralSecurityException ex)
+    catch(GeneralSecurityException | RuntimeException ex)
     {
+      //Zustand nach einem Fehler unklar. Beim naechsten Mal neu erstellen.
+      decrypter.remove();
       throw new IllegalArgumentException(ex);
     }
   }
 
+  /**
+   * Verschluesselt die Nachricht fuer den Besitzer dieses Schluessels. Ist ein
+   * Sitzungsschluessel gesetzt, wird dieser verwendet.
+   */
   public String encode(String message)
   {
+    byte[] sourceMessage = message.getBytes(StandardCharsets.UTF_8);
     try
     {
-      Cipher encryptCipher = Cipher.getInstance("RSA");
-      encryptCipher.init(Cipher.ENCRYPT_MODE, playerKey);
-      byte[] sourceMessage = message.getBytes(StandardCharsets.UTF_8);
-      ByteArrayOutputStream buffer = new ByteArrayOutputStream(BLOCK_SIZE << 1);
-      int off = 0;
-      int len = sourceMessage.length;
-      while(len > BLOCK_SIZE)
-      {
-        byte[] block = encryptCipher.doFinal(sourceMessage, off, BLOCK_SIZE);
-        buffer.writeBytes(block);
-        off += BLOCK_SIZE;
-        len -= BLOCK_SIZE;
-      }
-      byte[] data = encryptCipher.doFinal(sourceMessage, off, len);
-      buffer.writeBytes(data);
-      return Base64.getEncoder().encodeToString(buffer.toByteArray());
+      SecretKey session = sessionKey;
+      byte[] encrypted = session != null
+          ? encryptSession(session, ByteBuffer.wrap(sourceMessage), new byte[0])
+          : encryptAsymmetric(sourceMessage);
+      return Base64.getEncoder().encodeToString(encrypted);
     }
     catch(GeneralSecurityException ex)
     {
@@ -211,4 +486,332 @@ public class KeyManager
       return message;
     }
   }
+
+  /**
+   * Verschluesselt die restlichen Bytes von {@code plain} und schreibt das Ergebnis als
+   * Base64 direkt in {@code target}. Die Position von {@code plain} steht danach am Ende.
+   *
+   * @throws BufferOverflowException wenn {@code target} zu klein ist. {@code target}
+   * bleibt dann unveraendert.
+   * @throws IllegalStateException wenn nicht verschluesselt werden kann.
+   */
+  public void encode(ByteBuffer plain, ByteBuffer target)
+  {
+    byte[] data = encrypt(plain);
+    if(target.remaining() < (data.length + 2) / 3 * 4)
+    {
+      throw new BufferOverflowException();
+    }
+    for(int i = 0; i < data.length; i += 3)
+    {
+      int count = Math.min(3, data.length - i);
+      int group = base64Group(data, i, count);
+      target.put((byte)BASE64[group >> 18 & 0x3f])
+          .put((byte)BASE64[group >> 12 & 0x3f])
+          .put(count > 1 ? (byte)BASE64[group >> 6 & 0x3f] : (byte)'=')
+          .put(count > 2 ? (byte)BASE64[group & 0x3f] : (byte)'=');
+    }
+  }
+
+  /**
+   * Verschluesselt die Nachricht und haengt das Ergebnis als Base64 an {@code target} an,
+   * z.B. einen {@link java.nio.CharBuffer} oder einen {@link StringBuilder} fuer eine
+   * Spielstandzeile. Die Zeichen werden abschnittsweise angehaengt.
+   *
+   * @throws IllegalStateException wenn nicht verschluesselt werden kann.
+   */
+  public void encode(CharSequence message, Appendable target)
+  {
+    byte[] data = encrypt(StandardCharsets.UTF_8.encode(CharBuffer.wrap(message)));
+    char[] chunk = new char[Math.min(BASE64_CHUNK, (data.length + 2) / 3 * 4)];
+    int pos = 0;
+    try
+    {
+      for(int i = 0; i < data.length; i += 3)
+      {
+        if(pos == chunk.length)
+        {
+          append(target, chunk, pos);
+          pos = 0;
+        }
+        int count = Math.min(3, data.length - i);
+        int group = base64Group(data, i, count);
+        chunk[pos++] = BASE64[group >> 18 & 0x3f];
+        chunk[pos++] = BASE64[group >> 12 & 0x3f];
+        chunk[pos++] = count > 1 ? BASE64[group >> 6 & 0x3f] : '=';
+        chunk[pos++] = count > 2 ? BASE64[group & 0x3f] : '=';
+      }
+      append(target, chunk, pos);
+    }
+    catch(IOException ex)
+    {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private static int base64Group(byte[] data, int offset, int count)
+  {
+    int group = (data[offset] & 0xff) << 16;
+    if(count > 1)
+    {
+      group |= (data[offset + 1] & 0xff) << 8;
+    }
+    if(count > 2)
+    {
+      group |= data[offset + 2] & 0xff;
+    }
+    return group;
+  }
+
+  private static void append(Appendable target, char[] chunk, int length)
+      throws IOException
+  {
+    if(target instanceof StringBuilder)
+    {
+      ((StringBuilder)target).append(chunk, 0, length);
+    }
+    else if(target instanceof CharBuffer)
+    {
+      ((CharBuffer)target).put(chunk, 0, length);
+    }
+    else
+    {
+      target.append(CharBuffer.wrap(chunk, 0, length));
+    }
+  }
+
+  private byte[] encrypt(ByteBuffer plain)
+  {
+    try
+    {
+      SecretKey session = sessionKey;
+      if(session != null)
+      {
+        return encryptSession(session, plain, new byte[0]);
+      }
+      if(plain.hasArray())
+      {
+        int length = plain.remaining();
+        byte[] encrypted = encryptAsymmetric(plain.array(),
+            plain.arrayOffset() + plain.position(), length);
+        plain.position(plain.limit());
+        return encrypted;
+      }
+      byte[] sourceMessage = new byte[plain.remaining()];
+      plain.get(sourceMessage);
+      return encryptAsymmetric(sourceMessage);
+    }
+    catch(GeneralSecurityException ex)
+    {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private byte[] encryptAsymmetric(byte[] sourceMessage) throws GeneralSecurityException
+  {
+    return encryptAsymmetric(sourceMessage, 0, sourceMessage.length);
+  }
+
+  private byte[] encryptAsymmetric(byte[] data, int offset, int length)
+      throws GeneralSecurityException
+  {
+    try
+    {
+      KeyScheme.Encrypter current = encrypter.get();
+      if(current == null)
+      {
+        current = scheme.encrypter(playerKey);
+        encrypter.set(current);
+      }
+      return current.encrypt(data, offset, length);
+    }
+    catch(GeneralSecurityException ex)
+    {
+      encrypter.remove();
+      throw ex;
+    }
+  }
+
+  /**
+   * Setzt den Sitzungsschluessel fuer {@link #encode(String)} und
+   * {@link #decode(String)}. Mit {@code null} wird wieder direkt mit dem Verfahren des
+   * Schluessels verschluesselt.
+   */
+  public void setSessionKey(SecretKey sessionKey)
+  {
+    this.sessionKey = sessionKey;
+  }
+
+  public boolean hasSessionKey()
+  {
+    return sessionKey != null;
+  }
+
+  SecretKey getSessionKey()
+  {
+    return sessionKey;
+  }
+
+  /**
+   * Erstellt einen neuen zufaelligen Sitzungsschluessel.
+   */
+  public static SecretKey createSessionKey()
+  {
+    byte[] key = new byte[SESSION_KEY_LENGTH];
+    RANDOM.nextBytes(key);
+    return new SecretKeySpec(key, "AES");
+  }
+
+  /**
+   * Verschluesselt Sitzungsschluessel mit dem Verfahren des Schluessels fuer den Besitzer dieses Schluessels.
+   */
+  public String wrapKeys(SecretKey... keys)
+  {
+    ByteBuffer plain = ByteBuffer.allocate(keys.length * SESSION_KEY_LENGTH);
+    for(SecretKey key : keys)
+    {
+      plain.put(key.getEncoded());
+    }
+    try
+    {
+      return Base64.getEncoder().encodeToString(encryptAsymmetric(plain.array()));
+    }
+    catch(GeneralSecurityException ex)
+    {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * Entschluesselt Sitzungsschluessel, die mit {@link #wrapKeys(SecretKey...)}
+   * verschluesselt wurden.
+   */
+  public SecretKey[] unwrapKeys(String wrapped)
+  {
+    byte[] decoded = Base64.getDecoder().decode(wrapped);
+    byte[] plain = decryptAsymmetric(decoded, 0, decoded.length);
+    if(plain.length == 0 || plain.length % SESSION_KEY_LENGTH != 0)
+    {
+      throw new IllegalArgumentException("invalid session keys");
+    }
+    SecretKey[] keys = new SecretKey[plain.length / SESSION_KEY_LENGTH];
+    for(int i = 0; i < keys.length; i++)
+    {
+      keys[i] = new SecretKeySpec(plain, i * SESSION_KEY_LENGTH, SESSION_KEY_LENGTH, "AES");
+    }
+    return keys;
+  }
+
+  /**
+   * Verschluesselt die Nachricht so, dass nur der Besitzer dieses Schluessels sie lesen
+   * kann. Dazu wird ein einmaliger AES Schluessel mit dem Verfahren des Schluessels
+   * verschluesselt vorangestellt. Das kostet nur eine asymmetrische Operation, egal wie
+   * lang die Nachricht ist.
+   */
+  public String seal(String message)
+  {
+    SecretKey key = createSessionKey();
+    try
+    {
+      byte[] wrapped = encryptAsymmetric(key.getEncoded());
+      return Base64.getEncoder().encodeToString(
+          encryptSession(key, StandardCharsets.UTF_8.encode(message), wrapped));
+    }
+    catch(GeneralSecurityException ex)
+    {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * Entschluesselt eine mit {@link #seal(String)} verschluesselte Nachricht.
+   *
+   * @return die unverschluesselten (UTF-8) Bytes.
+   */
+  public byte[] unseal(String data)
+  {
+    byte[] decoded = Base64.getDecoder().decode(data);
+    int wrappedLength = scheme.encryptedLength(SESSION_KEY_LENGTH);
+    if(decoded.length < wrappedLength)
+    {
+      throw new IllegalArgumentException("sealed data too short");
+    }
+    byte[] key = decryptAsymmetric(decoded, 0, wrappedLength);
+    return decryptSession(new SecretKeySpec(key, "AES"), decoded, wrappedLength);
+  }
+
+  /**
+   * Verschluesselt mit AES-GCM. Ergebnis ist {@code prefix | iv | ciphertext}.
+   */
+  private byte[] encryptSession(SecretKey key, ByteBuffer plain, byte[] prefix)
+      throws GeneralSecurityException
+  {
+    byte[] iv = new byte[IV_LENGTH];
+    RANDOM.nextBytes(iv);
+    Cipher cipher = sessionCipher();
+    cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, iv));
+    int start = prefix.length + IV_LENGTH;
+    byte[] result = Arrays.copyOf(prefix, start + cipher.getOutputSize(plain.remaining()));
+    System.arraycopy(iv, 0, result, prefix.length, IV_LENGTH);
+    cipher.doFinal(plain, ByteBuffer.wrap(result, start, result.length - start));
+    return result;
+  }
+
+  private byte[] decryptSession(SecretKey key, byte[] data, int offset)
+  {
+    if(data.length - offset < IV_LENGTH)
+    {
+      throw new IllegalArgumentException("encrypted data too short");
+    }
+    try
+    {
+      Cipher cipher = sessionCipher();
+      cipher.init(Cipher.DECRYPT_MODE, key,
+          new GCMParameterSpec(TAG_LENGTH, data, offset, IV_LENGTH));
+      return cipher.doFinal(data, offset + IV_LENGTH, data.length - offset - IV_LENGTH);
+    }
+    catch(GeneralSecurityException ex)
+    {
+      throw new IllegalArgumentException(ex);
+    }
+  }
+
+  /**
+   * Entschluesselt {@code iv | ciphertext} aus den restlichen Bytes von
+   * {@code encrypted} direkt in den Puffer {@code target}.
+   */
+  private void decryptSession(SecretKey key, ByteBuffer encrypted, ByteBuffer target)
+  {
+    if(encrypted.remaining() < IV_LENGTH)
+    {
+      throw new IllegalArgumentException("encrypted data too short");
+    }
+    try
+    {
+      Cipher cipher = sessionCipher();
+      cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH,
+          encrypted.array(), encrypted.arrayOffset() + encrypted.position(), IV_LENGTH));
+      encrypted.position(encrypted.position() + IV_LENGTH);
+      cipher.doFinal(encrypted, target);
+    }
+    catch(ShortBufferException ex)
+    {
+      throw new BufferOverflowException();
+    }
+    catch(GeneralSecurityException ex)
+    {
+      throw new IllegalArgumentException(ex);
+    }
+  }
+
+  private static Cipher sessionCipher() throws GeneralSecurityException
+  {
+    Cipher cipher = SESSION_CIPHER.get();
+    if(cipher == null)
+    {
+      cipher = Cipher.getInstance("AES/GCM/NoPadding");
+      SESSION_CIPHER.set(cipher);
+    }
+    return cipher;
+  }
 }
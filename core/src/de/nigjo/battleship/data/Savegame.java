@@ -16,18 +16,22 @@
 package de.nigjo.battleship.data;
 
 import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
-import de.nigjo.battleship.BattleshipGame;
 import de.nigjo.battleship.api.SavegameStorage;
-import de.nigjo.battleship.util.Storage;
 
 /**
  *
@@ -35,21 +39,55 @@ import de.nigjo.battleship.util.Storage;
  */
 public class Savegame
 {
-  private static final String CURRENT_VERSION = "0";
+  /**
+   * Version neuer Spielstaende.
+   * <ul>
+   * <li>{@code 0}: Alle Records werden direkt mit RSA verschluesselt.</li>
+   * <li>{@code 1}: Die Records werden mit AES Sitzungsschluesseln verschluesselt, die in
+   * {@link Record#KEY} Records abgelegt sind.</li>
+   * <li>{@code 2}: Wie {@code 1}. Zusaetzlich beginnen die Nutzdaten von
+   * {@link Record#ATTACK} und {@link Record#RESULT} mit dem Fingerabdruck des
+   * Empfaengers und einem {@code ':'}.</li>
+   * </ul>
+   */
+  public static final int CURRENT_VERSION = 2;
+  /** Erste Version mit dem Fingerabdruck des Empfaengers in den Records. */
+  private static final int VERSION_FINGERPRINT = 2;
 
   private final List<Record> records;
+  /** Records je Spieler und Art. Index ist die Spielernummer. */
+  private final List<Map<String, List<Record>>> recordsByKind;
+  /** Position des (ersten) CONFIG Records je Schluessel. */
+  private final Map<String, Integer> configPositions;
 //  private Path filename;
   private SavegameStorage ioStorage;
+  /**
+   * Anzahl der Records, die unveraendert im Speicher liegen. {@code -1}, wenn der
+   * Spielstand komplett neu geschrieben werden muss.
+   */
+  private int storedRecords = -1;
+  /** Verschachtelungstiefe von {@link #batch(Consumer)}. */
+  private int batchDepth;
+  /** Waehrend eines Batches ersetzte Records (Position und alter Record). */
+  private final List<Map.Entry<Integer, Record>> batchReplaced = new ArrayList<>();
+  /** Entschluesselte Nutzdaten je KeyManager. */
+  private final Map<KeyManager, DecodedRecords> decodedRecords = new WeakHashMap<>();
+  /** Anzahl der entschluesselten Records, die je KeyManager gemerkt werden. */
+  private static final int DECODED_RECORDS = 64;
+  /** Eintrag fuer Records, die mit einem Schluessel nicht lesbar sind. */
+  private static final Object NOT_DECODABLE = new Object();
 
   private Savegame()
   {
     records = new ArrayList<>();
+    recordsByKind = List.of(Map.of(), new HashMap<>(), new HashMap<>());
+    configPositions = new HashMap<>();
   }
 
   public static Savegame createNew()
   {
     Savegame game = new Savegame();
-    game.addRecord(Record.VERSION, 1, CURRENT_VERSION);
+    game.addRecord(Record.VERSION, 1, String.valueOf(CURRENT_VERSION));
 //    String shipsList = IntStream.of(ships).boxed()
 //        .reduce((String)null,
 //            (s, i) -> s == null ? ("" + i) : (s + "," + i),
@@ -71,14 +109,114 @@ public class Savegame
       throw new IllegalArgumentException("invalid player number " + record.getPlayerid());
     }
     this.records.add(record);
+    index(record, records.size() - 1);
     store();
   }
 
+  private void index(Record record, int position)
+  {
+    recordsByKind.get(record.getPlayerid())
+        .computeIfAbsent(record.getKind(), k -> new ArrayList<>())
+        .add(record);
+    if(record.getPlayerid() == 1 && Record.CONFIG.equals(record.getKind()))
+    {
+      String payload = record.getPayload();
+      int split = payload.indexOf('=');
+      if(split >= 0)
+      {
+        configPositions.putIfAbsent(payload.substring(0, split), position);
+      }
+    }
+  }
+
+  /**
+   * Fuehrt mehrere Aenderungen als eine Einheit aus. Alle Records aus {@code changes}
+   * werden gemeinsam in einem Schritt gespeichert. Schlaegt eine Aenderung oder das
+   * Speichern fehl, werden alle Aenderungen des Batches verworfen.
+   *
+   * Ein verschachtelter Aufruf wird Teil des aeusseren Batches.
+   *
+   * @param changes Aenderungen an diesem Spielstand.
+   */
+  public void batch(Consumer<Savegame> changes)
+  {
+    if(batchDepth > 0)
+    {
+      changes.accept(this);
+      return;
+    }
+    int startSize = records.size();
+    int startStored = storedRecords;
+    boolean storing = false;
+    boolean stored = false;
+    batchDepth++;
+    try
+    {
+      changes.accept(this);
+      batchDepth--;
+      storing = true;
+      store();
+      stored = true;
+    }
+    finally
+    {
+      //Auch bei einem Error, sonst wird danach nie wieder gespeichert.
+      batchDepth = 0;
+      if(!stored)
+      {
+        rollback(startSize);
+        //Nach einem Fehler beim Speichern ist der Stand im Speicher unbekannt.
+        storedRecords = storing ? -1 : startStored;
+      }
+      batchReplaced.clear();
+    }
+  }
+
+  private void rollback(int size)
+  {
+    for(int i = batchReplaced.size() - 1; i >= 0; i--)
+    {
+      Map.Entry<Integer, Record> replaced = batchReplaced.get(i);
+      replace(replaced.getKey(), replaced.getValue());
+    }
+    while(records.size() > size)
+    {
+      Record record = records.remove(records.size() - 1);
+      List<Record> ofKind = recordsByKind.get(record.getPlayerid()).get(record.getKind());
+      ofKind.remove(ofKind.size() - 1);
+    }
+    configPositions.values().removeIf(pos -> pos >= size);
+  }
+
   private void store() throws UncheckedIOException
   {
+    if(batchDepth > 0)
+    {
+      return;
+    }
     if(ioStorage != null)
     {
-      store(ioStorage);
+      boolean appended;
+      try
+      {
+        appended = storedRecords >= 0 && ioStorage.appendLines(
+            records.subList(storedRecords, records.size()).stream()
+                .map(Record::toString));
+      }
+      catch(RuntimeException ex)
+      {
+        //Evtl. wurde ein Teil der Zeilen geschrieben. Beim naechsten Mal alles schreiben.
+        storedRecords = -1;
+        throw ex;
+      }
+      if(appended)
+      {
+        storedRecords = records.size();
+      }
+      else
+      {
+        store(ioStorage);
+      }
     }
   }
 
@@ -89,48 +227,145 @@ public class Savegame
 
   public Stream<Record> records(int player, String kind)
   {
-    return this.records.stream()
-        .filter(r -> r.getPlayerid() == player)
-        .filter(r -> kind.equals(r.getKind()));
+    if(player != 1 && player != 2)
+    {
+      return Stream.empty();
+    }
+    List<Record> ofKind = recordsByKind.get(player).get(kind);
+    return ofKind == null ? Stream.empty() : ofKind.stream();
   }
 
   public List<Record> allRecords()
   {
-    return Collections.unmodifiableList(new ArrayList<>(records));
+    return recordsSince(0);
+  }
+
+  /**
+   * Alle Records ab der angegebenen Position.
+   */
+  public List<Record> recordsSince(int first)
+  {
+    return Collections.unmodifiableList(
+        new ArrayList<>(records.subList(first, records.size())));
+  }
+
+  /**
+   * Version dieses Spielstandes aus dem ersten Record.
+   *
+   * @throws IllegalStateException wenn der Spielstand nicht mit einer Version beginnt.
+   */
+  public int getVersion()
+  {
+    Record first = records.isEmpty() ? null : records.get(0);
+    if(first == null || !Record.VERSION.equals(first.getKind()))
+    {
+      throw new IllegalStateException("no game version found.");
+    }
+    return Integer.parseInt(first.getPayload());
   }
 
   public void setConfig(String key, String value)
   {
-    records(1, Savegame.Record.CONFIG)
-        .filter(r -> r.getPayload().startsWith(key + "="))
-        .findFirst()
-        .ifPresentOrElse(record ->
-        {
-          Record replacement = new Record(Record.CONFIG, 1, key + "=" + value);
-          int pos = records.indexOf(record);
-          records.add(pos, replacement);
-          records.remove(pos + 1);
-          store();
-        }, () ->
-        {
-          addRecord(new Record(Record.CONFIG, 1, key + "=" + value));
-        });
+    Record replacement = new Record(Record.CONFIG, 1, key + "=" + value);
+    Integer pos = configPositions.get(key);
+    if(pos == null)
+    {
+      addRecord(replacement);
+    }
+    else
+    {
+      Record record = replace(pos, replacement);
+      if(batchDepth > 0)
+      {
+        batchReplaced.add(Map.entry(pos, record));
+      }
+      //Zeile wurde ersetzt. Anhaengen reicht nicht mehr.
+      storedRecords = -1;
+      store();
+    }
+  }
+
+  private Record replace(int pos, Record replacement)
+  {
+    Record record = records.set(pos, replacement);
+    List<Record> ofKind =
+        recordsByKind.get(record.getPlayerid()).get(record.getKind());
+    for(ListIterator<Record> it = ofKind.listIterator(); it.hasNext();)
+    {
+      if(it.next() == record)
+      {
+        it.set(replacement);
+        break;
+      }
+    }
+    return record;
   }
 
   public Optional<String> getConfig(String key)
   {
-    return records(1, Savegame.Record.CONFIG)
-        .filter(r -> r.getPayload().startsWith(key + "="))
-        .findFirst()
-        .map(r -> r.getPayload())
-        .map(p -> p.substring(p.indexOf('=') + 1));
+    Integer pos = configPositions.get(key);
+    if(pos == null)
+    {
+      return Optional.empty();
+    }
+    String payload = records.get(pos).getPayload();
+    return Optional.of(payload.substring(key.length() + 1));
   }
 
   public static Savegame createFromStorage(SavegameStorage storage)
   {
     Savegame savedgame = new Savegame();
+    savedgame.readLines(storage.getLines().iterator());
+
+    savedgame.setIoStorage(storage);
+    savedgame.storedRecords = savedgame.records.size();
+
+    storage.doneRead();
+    return savedgame;
+  }
+
+  /**
+   * Liest die Records nach, die seit dem letzten Lesen oder Schreiben im Speicher
+   * hinzugekommen sind.
+   *
+   * @return Anzahl der neuen Records oder {@code -1}, wenn sich die neuen Records nicht
+   * ermitteln lassen und der Spielstand komplett neu gelesen werden muss.
+   */
+  public int readNewRecords()
+  {
+    if(ioStorage == null || storedRecords != records.size())
+    {
+      return -1;
+    }
+    Optional<Stream<String>> lines = ioStorage.getNewLines();
+    if(lines.isEmpty())
+    {
+      return -1;
+    }
+    int before = records.size();
+    //Die gelesenen Records liegen bereits im Speicher.
+    batchDepth++;
+    try
+    {
+      readLines(lines.get().iterator());
+    }
+    catch(RuntimeException ex)
+    {
+      rollback(before);
+      throw ex;
+    }
+    finally
+    {
+      batchDepth--;
+      ioStorage.doneRead();
+    }
+    storedRecords = records.size();
+    return records.size() - before;
+  }
+
+  private void readLines(Iterator<String> lines)
+  {
     String comment = null;
-    Iterator<String> lines = storage.getLines().iterator();
     while(lines.hasNext())
     {
       String zeile = lines.next();
@@ -154,15 +389,18 @@ public class Savegame
         Record record = Record.parseLine(zeile);
         if(record != null)
         {
-          savedgame.addRecord(record);
+          addRecord(record);
         }
       }
     }
+  }
 
-    savedgame.setIoStorage(storage);
-
-    storage.doneRead();
-    return savedgame;
+  /**
+   * Anzahl aller Records in diesem Spielstand.
+   */
+  public int recordCount()
+  {
+    return records.size();
   }
 
   public void store(SavegameStorage storage)
@@ -171,6 +409,7 @@ public class Savegame
         this.records.stream()
             .map(Record::toString));
     setIoStorage(storage);
+    storedRecords = records.size();
   }
 
   private void setIoStorage(SavegameStorage storage)
@@ -187,22 +426,134 @@ public class Savegame
       last = records.get(index);
       --index;
     }
-    while(Record.MESSAGE.equals(last.getKind()));
+    while(Record.MESSAGE.equals(last.getKind()) || Record.KEY.equals(last.getKind()));
     return last;
   }
 
-  public String[] getAttack(Record reference, KeyManager self)
+  /**
+   * Entschluesselt die Nutzdaten eines Records. Die Ergebnisse werden je
+   * {@link KeyManager} fuer die zuletzt verwendeten Records gemerkt, auch wenn der Record
+   * nicht mit diesem Schluessel gelesen werden kann. So wird jeder Record bei wiederholter
+   * Auswertung des Spielstandes nur einmal entschluesselt.
+   *
+   * @return die Nutzdaten oder ein leeres Optional, wenn der Record nicht an den
+   * Besitzer von {@code keys} gerichtet ist.
+   */
+  public Optional<String> decode(Record record, KeyManager keys)
+  {
+    if(!isAddressedTo(record, keys))
+    {
+      return Optional.empty();
+    }
+    DecodedRecords cache;
+    synchronized(decodedRecords)
+    {
+      cache = decodedRecords.get(keys);
+      if(cache == null || cache.sessionKey != keys.getSessionKey())
+      {
+        cache = new DecodedRecords(keys.getSessionKey());
+        decodedRecords.put(keys, cache);
+      }
+      Object known = cache.get(record);
+      if(known != null)
+      {
+        return known == NOT_DECODABLE ? Optional.empty() : Optional.of((String)known);
+      }
+    }
+
+    Object payload;
+    try
+    {
+      payload = decodePayload(record, keys);
+    }
+    catch(IllegalArgumentException ex)
+    {
+      payload = NOT_DECODABLE;
+    }
+    synchronized(decodedRecords)
+    {
+      cache.put(record, payload);
+    }
+    return payload == NOT_DECODABLE ? Optional.empty() : Optional.of((String)payload);
+  }
+
+  /**
+   * Verschluesselt eine Nachricht fuer den Besitzer von {@code recipient} im Format
+   * dieses Spielstandes.
+   */
+  public String encode(String message, KeyManager recipient)
+  {
+    StringBuilder encoded = new StringBuilder();
+    if(getVersion() >= VERSION_FINGERPRINT)
+    {
+      encoded.append(recipient.getFingerprint()).append(':');
+    }
+    recipient.encode(message, encoded);
+    return encoded.toString();
+  }
+
+  /**
+   * Prueft ohne Entschluesselung, ob ein Record an den Besitzer von {@code keys}
+   * gerichtet ist. Vor Version 2 ist das ohne Entschluesselung nicht erkennbar und es
+   * wird immer {@code true} geliefert.
+   */
+  public boolean isAddressedTo(Record record, KeyManager keys)
+  {
+    if(getVersion() < VERSION_FINGERPRINT || !hasRecipient(record))
+    {
+      return true;
+    }
+    String fingerprint = keys.getFingerprint();
+    String payload = record.getPayload();
+    return payload.length() > fingerprint.length()
+        && payload.charAt(fingerprint.length()) == ':'
+        && payload.startsWith(fingerprint);
+  }
+
+  /**
+   * Entschluesselt die Nutzdaten ohne Zwischenspeicher.
+   *
+   * @throws IllegalArgumentException wenn der Record nicht gelesen werden kann.
+   */
+  String decodePayload(Record record, KeyManager keys)
+  {
+    //Sicht auf die Zeile. Die Nutzdaten werden nicht kopiert.
+    CharSequence payload = record.getPayloadSequence();
+    if(getVersion() >= VERSION_FINGERPRINT && hasRecipient(record))
+    {
+      int split = 0;
+      while(split < payload.length() && payload.charAt(split) != ':')
+      {
+        split++;
+      }
+      if(split == payload.length())
+      {
+        throw new IllegalArgumentException("missing recipient in " + record.getKind());
+      }
+      payload = payload.subSequence(split + 1, payload.length());
+    }
+    return keys.decode(payload);
+  }
+
+  private static boolean hasRecipient(Record record)
+  {
+    return Record.ATTACK.equals(record.getKind()) || Record.RESULT.equals(record.getKind());
+  }
+
+  /**
+   * Liefert Position und Ergebnis eines Angriffs.
+   *
+   * @param ownBoard das eigene Brett des Spiels, um Angriffe auf die eigenen Schiffe
+   * auszuwerten.
+   */
+  public String[] getAttack(Record reference, KeyManager self, BoardData ownBoard)
   {
     if(Record.ATTACK.equals(reference.kind))
     {
-      String encoded = reference.getPayload();
-      try
+      Optional<String> decoded = decode(reference, self);
+      if(decoded.isPresent())
       {
-        String decoded = self.decode(encoded);
-        String[] posOnly = decoded.split(",");
-        BoardData ownBoard =
-            Storage.getDefault().get(BattleshipGame.class)
-                .getData(BoardData.KEY_SELF, BoardData.class);
+        String[] posOnly = decoded.get().split(",");
         int state =
             ownBoard.stateAt(Integer.parseInt(posOnly[0]), Integer.parseInt(posOnly[1]));
         String[] result = new String[]
@@ -213,7 +564,7 @@ public class Savegame
         return result;
 
       }
-      catch(IllegalArgumentException ex)
+      else
       {
         //keine dekodierung
         int idx = records.indexOf(reference);
@@ -223,7 +574,7 @@ public class Savegame
           Record next = it.next();
           if(Record.RESULT.equals(next.getKind()))
           {
-            return getAttack(next, self);
+            return getAttack(next, self, ownBoard);
           }
         }
         //"ATTACK" war der letzte Eintrag
@@ -232,13 +583,12 @@ public class Savegame
     }
     else if(Record.RESULT.equals(reference.kind))
     {
-      String encoded = reference.getPayload();
-      try
+      Optional<String> decoded = decode(reference, self);
+      if(decoded.isPresent())
       {
-        String decoded = self.decode(encoded);
-        return decoded.split(",");
+        return decoded.get().split(",");
       }
-      catch(IllegalArgumentException ex)
+      else
       {
         int idx = records.indexOf(reference);
         ListIterator<Record> it = records.listIterator(idx);
@@ -247,7 +597,7 @@ public class Savegame
           Record next = it.previous();
           if(Record.ATTACK.equals(next.getKind()))
           {
-            return getAttack(next, self);
+            return getAttack(next, self, ownBoard);
           }
         }
         //vor "RESULT" war kein "ATTACK". Dürfte eigentlich nicht sein.
@@ -259,6 +609,38 @@ public class Savegame
     return null;
   }
 
+  /**
+   * Zuletzt entschluesselte Records eines KeyManagers. Wechselt dessen
+   * Sitzungsschluessel, wird der Inhalt verworfen.
+   */
+  private static class DecodedRecords
+  {
+    private final Object sessionKey;
+    /** In Zugriffsreihenfolge. Der erste Eintrag ist der am laengsten unbenutzte. */
+    private final Map<Record, Object> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    DecodedRecords(Object sessionKey)
+    {
+      this.sessionKey = sessionKey;
+    }
+
+    Object get(Record record)
+    {
+      return entries.get(record);
+    }
+
+    void put(Record record, Object payload)
+    {
+      entries.put(record, payload);
+      if(entries.size() > DECODED_RECORDS)
+      {
+        Iterator<Record> eldest = entries.keySet().iterator();
+        eldest.next();
+        eldest.remove();
+      }
+    }
+  }
+
   public static class Record
   {
     /**
@@ -286,18 +668,43 @@ public class Savegame
      * key. So the player itself can decrpyt only its own board.
      */
     public static final String BOARD = "BOARD";
+    /**
+     * Sitzungsschluessel beider Spieler (ab Version 1). Die Schluessel werden vom
+     * beitretenden Spieler 2 erstellt und fuer jeden Spieler mit dessen oeffentlichem
+     * Schluessel verschluesselt.
+     */
+    public static final String KEY = "KEY";
     public static final String ATTACK = "ATTACK";
     public static final String RESULT = "RESULT";
 
+    /** Bekannte Arten, damit beim Einlesen keine neuen Strings entstehen. */
+    private static final String[] KINDS =
+    {
+      VERSION, MESSAGE, PLAYER, CONFIG, BOARD, KEY, ATTACK, RESULT
+    };
+
     private final String kind;
     private final int playerid;
-    private final String payload;
+    /** Eingelesene Zeile oder {@code null}, wenn der Record neu erstellt wurde. */
+    private final String line;
+    private final int payloadStart;
+    private String payload;
 
     private Record(String kind, int playerid, String payload)
     {
       this.kind = Objects.requireNonNull(kind);
       this.playerid = playerid;
       this.payload = payload;
+      this.line = null;
+      this.payloadStart = -1;
+    }
+
+    private Record(String kind, int playerid, String line, int payloadStart)
+    {
+      this.kind = kind;
+      this.playerid = playerid;
+      this.line = line;
+      this.payloadStart = payloadStart;
     }
 
     public String getKind()
@@ -312,31 +719,80 @@ public class Savegame
 
     public String getPayload()
     {
+      if(payload == null && line != null)
+      {
+        payload = line.substring(payloadStart);
+      }
+      return payload;
+    }
+
+    /**
+     * Liefert die Nutzdaten ohne sie zu kopieren. Bei eingelesenen Records ist das eine
+     * Sicht auf die gespeicherte Zeile.
+     */
+    public CharSequence getPayloadSequence()
+    {
+      if(payload == null && line != null)
+      {
+        return CharBuffer.wrap(line, payloadStart, line.length());
+      }
       return payload;
     }
 
     @Override
     public String toString()
     {
+      if(line != null)
+      {
+        return line;
+      }
       return kind + ":" + playerid + "," + String.join("\\n", payload);
     }
 
+    /**
+     * Liest einen Record im Format {@code KIND:n,payload}. {@code KIND} besteht nur aus
+     * Grossbuchstaben, {@code n} ist eine einzelne Ziffer.
+     *
+     * @return den Record oder {@code null}, wenn die Zeile kein Record ist.
+     */
     public static Record parseLine(String storedLine)
     {
-      if(storedLine.startsWith(";") || !Character.isUpperCase(storedLine.charAt(0)))
+      int length = storedLine.length();
+      int colon = 0;
+      while(colon < length && isKindChar(storedLine.charAt(colon)))
+      {
+        ++colon;
+      }
+      if(colon == 0 || colon + 2 >= length
+          || storedLine.charAt(colon) != ':'
+          || storedLine.charAt(colon + 2) != ',')
+      {
+        return null;
+      }
+      char digit = storedLine.charAt(colon + 1);
+      if(digit < '0' || digit > '9')
       {
         return null;
       }
+      return new Savegame.Record(kindOf(storedLine, colon),
+          digit - '0', storedLine, colon + 3);
+    }
 
-      if(storedLine.matches("^[A-Z]+:\\d,.*"))
+    private static boolean isKindChar(char c)
+    {
+      return c >= 'A' && c <= 'Z';
+    }
+
+    private static String kindOf(String line, int length)
+    {
+      for(String known : KINDS)
       {
-        String command = storedLine.substring(0, storedLine.indexOf(':'));
-        String player =
-            storedLine.substring(storedLine.indexOf(':') + 1, storedLine.indexOf(','));
-        String payload = storedLine.substring(storedLine.indexOf(',') + 1);
-        return new Savegame.Record(command, Integer.parseInt(player), payload);
+        if(known.length() == length && line.startsWith(known))
+        {
+          return known;
+        }
       }
-      return null;
+      return line.substring(0, length);
     }
 
   }
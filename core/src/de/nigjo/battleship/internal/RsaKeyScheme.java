@@ -0,0 +1,120 @@
+/*
+ * Copyright 2024 nigjo.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.nigjo.battleship.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+
+import javax.crypto.Cipher;
+
+import de.nigjo.battleship.api.KeyScheme;
+
+/**
+ * Das urspruengliche Verfahren: RSA mit 1024 Bit. Lange Daten werden in Bloecken zu 72
+ * Bytes verschluesselt.
+ *
+ * @author nigjo
+ */
+public class RsaKeyScheme implements KeyScheme
+{
+  public static final String NAME = "RSA";
+
+  private static final int KEY_LENGTH = 1024; // enough for this game. No real security
+  private static final int BLOCK_SIZE = 72;
+  private static final int ENCRYPTED_BLOCK = KEY_LENGTH / 8;
+
+  @Override
+  public String getName()
+  {
+    return NAME;
+  }
+
+  @Override
+  public KeyPair generateKeyPair() throws GeneralSecurityException
+  {
+    KeyPairGenerator gen = KeyPairGenerator.getInstance("RSA");
+    gen.initialize(KEY_LENGTH);
+    return gen.generateKeyPair();
+  }
+
+  @Override
+  public PublicKey toPublicKey(byte[] encoded) throws GeneralSecurityException
+  {
+    return KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(encoded));
+  }
+
+  @Override
+  public PrivateKey toPrivateKey(byte[] encoded) throws GeneralSecurityException
+  {
+    return KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(encoded));
+  }
+
+  @Override
+  public int encryptedLength(int plainLength)
+  {
+    int blocks = Math.max(1, (plainLength + BLOCK_SIZE - 1) / BLOCK_SIZE);
+    return blocks * ENCRYPTED_BLOCK;
+  }
+
+  /**
+   * {@link Cipher#doFinal()} setzt den Cipher wieder in den initialisierten Zustand. Er
+   * kann also fuer den naechsten Record wiederverwendet werden.
+   */
+  @Override
+  public Encrypter encrypter(PublicKey key) throws GeneralSecurityException
+  {
+    Cipher cipher = Cipher.getInstance("RSA");
+    cipher.init(Cipher.ENCRYPT_MODE, key);
+    return (plain, offset, length) ->
+    {
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream(BLOCK_SIZE << 1);
+      int off = offset;
+      int len = length;
+      while(len > BLOCK_SIZE)
+      {
+        buffer.writeBytes(cipher.doFinal(plain, off, BLOCK_SIZE));
+        off += BLOCK_SIZE;
+        len -= BLOCK_SIZE;
+      }
+      buffer.writeBytes(cipher.doFinal(plain, off, len));
+      return buffer.toByteArray();
+    };
+  }
+
+  @Override
+  public Decrypter decrypter(PrivateKey key) throws GeneralSecurityException
+  {
+    Cipher cipher = Cipher.getInstance("RSA");
+    cipher.init(Cipher.DECRYPT_MODE, key);
+    return (data, offset, length) ->
+    {
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream(BLOCK_SIZE << 1);
+      for(int off = offset; off < offset + length; off += ENCRYPTED_BLOCK)
+      {
+        buffer.writeBytes(cipher.doFinal(data, off, ENCRYPTED_BLOCK));
+      }
+      return buffer.toByteArray();
+    };
+  }
+
+}
@@ -19,9 +19,10 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.NoSuchElementException;
 
+import javax.crypto.SecretKey;
+
 import de.nigjo.battleship.BattleshipGame;
 import de.nigjo.battleship.api.SavegameStorage;
-import de.nigjo.battleship.api.StatusDisplayer;
 import de.nigjo.battleship.data.BoardData;
 import de.nigjo.battleship.data.GamePlayback;
 import de.nigjo.battleship.data.KeyManager;
@@ -39,12 +40,86 @@ public class SavegameLoader
     try
     {
       savegame = Savegame.createFromStorage(supplier);
-      game.putData(Savegame.class.getName(), savegame);
     }
     catch(UncheckedIOException ex)
     {
       throw ex.getCause();
     }
+    loadGame(game, savegame);
+  }
+
+  /**
+   * Liest nur die neuen Records eines bereits geladenen Spielstandes nach. Laufen nur
+   * Spielzuege hinzu, werden nur diese auf die Spielbretter uebertragen. Sonst wird das
+   * Spiel aus dem (aktualisierten) Spielstand neu aufgebaut.
+   */
+  public static void reloadGame(BattleshipGame game, Savegame savegame) throws IOException
+  {
+    int known = savegame.recordCount();
+    boolean running = isRunning(game, savegame);
+    int added;
+    try
+    {
+      added = savegame.readNewRecords();
+    }
+    catch(UncheckedIOException ex)
+    {
+      throw ex.getCause();
+    }
+    if(added < 0)
+    {
+      loadGame(game, savegame.getStorage());
+      return;
+    }
+
+    boolean movesOnly = savegame.recordsSince(known).stream()
+        .map(Savegame.Record::getKind)
+        .allMatch(kind -> Savegame.Record.ATTACK.equals(kind)
+        || Savegame.Record.RESULT.equals(kind)
+        || Savegame.Record.MESSAGE.equals(kind));
+    if(!running || !movesOnly)
+    {
+      loadGame(game, savegame);
+      return;
+    }
+
+    if(added > 0)
+    {
+      int player = game.getDataInt(BattleshipGame.KEY_PLAYER_NUM, -1);
+      KeyManager km = game.getKeyManager();
+      GamePlayback
+          .from(savegame)
+          .since(known)
+          .asPlayer(player)
+          .with(km)
+          .toBoth(game.getData(BoardData.KEY_SELF, BoardData.class),
+              game.getData(BoardData.KEY_OPPONENT, BoardData.class));
+    }
+    game.updateState();
+  }
+
+  /**
+   * Das Spiel laeuft, wenn beide Spieler ihre Schiffe platziert haben und die
+   * Spielbretter aus diesem Spielstand aufgebaut wurden.
+   */
+  private static boolean isRunning(BattleshipGame game, Savegame savegame)
+  {
+    int player = game.getDataInt(BattleshipGame.KEY_PLAYER_NUM, -1);
+    if(player != 1 && player != 2)
+    {
+      return false;
+    }
+    BoardData own = game.getData(BoardData.KEY_SELF, BoardData.class);
+    return game.getData(Savegame.class) == savegame
+        && own != null && own.hasShips()
+        && game.getData(BoardData.KEY_OPPONENT, BoardData.class) != null
+        && game.getData(KeyManager.KEY_MANAGER_OPPONENT, KeyManager.class) != null
+        && savegame.records(3 - player, Savegame.Record.BOARD).findFirst().isPresent();
+  }
+
+  private static void loadGame(BattleshipGame game, Savegame savegame)
+  {
+    game.putData(Savegame.class.getName(), savegame);
 
     String player1key =
         savegame.records(1, Savegame.Record.PLAYER)
@@ -56,27 +131,29 @@ public class SavegameLoader
             .map(Savegame.Record::getPayload)
             .orElse(null);
 
-    KeyManager km = game.getData(KeyManager.KEY_MANAGER_SELF, KeyManager.class);
+    KeyManager km = game.getKeyManager();
+    km.setSessionKey(null);
     if(player1key.equals(km.getPublicKey()))
     {
-      StatusDisplayer.getDefault().setText("Willkommen Spieler 1");
+      game.getStatusDisplayer().setText("Willkommen Spieler 1");
       game.putData(BattleshipGame.KEY_PLAYER_NUM, 1);
       loadBoardForPlayer(1, savegame, km, game);
       if(player2key == null)
       {
-        StatusDisplayer.getDefault().setText("Warte auf Spieler 2");
+        game.getStatusDisplayer().setText("Warte auf Spieler 2");
       }
       else
       {
         KeyManager opponent = new KeyManager(player2key);
         game.putData(KeyManager.KEY_MANAGER_OPPONENT, opponent);
+        applySessionKeys(1, savegame, km, opponent);
 
         boolean hasPlacedShipsForPlayer2 =
             savegame.records(2, Savegame.Record.BOARD)
                 .findFirst().isPresent();
         if(!hasPlacedShipsForPlayer2)
         {
-          StatusDisplayer.getDefault().setText("Spieler 2 noch nicht bereit.");
+          game.getStatusDisplayer().setText("Spieler 2 noch nicht bereit.");
           game.updateState(BattleshipGame.STATE_WAIT_START);
         }
         else
@@ -85,12 +162,8 @@ public class SavegameLoader
               .from(savegame)
               .asPlayer(1)
               .with(km)
-              .to(game.getData(BoardData.KEY_SELF, BoardData.class));
-          GamePlayback
-              .from(savegame)
-              .asPlayer(1)
-              .with(km)
-              .to(game.getData(BoardData.KEY_OPPONENT, BoardData.class));
+              .toBoth(game.getData(BoardData.KEY_SELF, BoardData.class),
+                  game.getData(BoardData.KEY_OPPONENT, BoardData.class));
 
           //TODO:savegame.playbackTo(gamedata, km, 2);
           game.updateState();
@@ -105,18 +178,38 @@ public class SavegameLoader
       if(player2key == null)
       {
         //Noch kein Playerkey. Wir sind Spieler 2
-        StatusDisplayer.getDefault().setText("Willkommen Spieler 2");
+        game.getStatusDisplayer().setText("Willkommen Spieler 2");
         game.putData(BattleshipGame.KEY_PLAYER_NUM, 2);
         //nur Spieler 1 vorhanden. Spieler 2 (wir) am Zug
         game.clearBoards();
-        savegame.addRecord(Savegame.Record.PLAYER, 2, km.getPublicKey());
+        SecretKey[] keys = savegame.getVersion() >= 1
+            ? new SecretKey[]
+            {
+              KeyManager.createSessionKey(), KeyManager.createSessionKey()
+            }
+            : null;
+        savegame.batch(sg ->
+        {
+          sg.addRecord(Savegame.Record.PLAYER, 2, km.getPublicKey());
+          if(keys != null)
+          {
+            sg.addRecord(Savegame.Record.KEY, 1, opponent.wrapKeys(keys));
+            sg.addRecord(Savegame.Record.KEY, 2, km.wrapKeys(keys));
+          }
+        });
+        if(keys != null)
+        {
+          opponent.setSessionKey(keys[0]);
+          km.setSessionKey(keys[1]);
+        }
         game.updateState(BattleshipGame.STATE_PLACEMENT);
       }
       else if(player2key.equals(km.getPublicKey()))
       {
         //Wir sind dem Spiel bereits beigetreten.
-        StatusDisplayer.getDefault().setText("Willkommen Spieler 2");
+        game.getStatusDisplayer().setText("Willkommen Spieler 2");
         game.putData(BattleshipGame.KEY_PLAYER_NUM, 2);
+        applySessionKeys(2, savegame, km, opponent);
         if(!loadBoardForPlayer(2, savegame, km, game))
         {
           // noch keine Schiffe platziert. Wir sind dran.
@@ -129,24 +222,42 @@ public class SavegameLoader
               .from(savegame)
               .asPlayer(2)
               .with(km)
-              .to(game.getData(BoardData.KEY_SELF, BoardData.class));
-          GamePlayback
-              .from(savegame)
-              .asPlayer(2)
-              .with(km)
-              .to(game.getData(BoardData.KEY_OPPONENT, BoardData.class));
+              .toBoth(game.getData(BoardData.KEY_SELF, BoardData.class),
+                  game.getData(BoardData.KEY_OPPONENT, BoardData.class));
 
           game.updateState();
         }
       }
       else
       {
-        StatusDisplayer.getDefault().setText("Das Spiel hat bereits 2 Spieler.");
+        game.getStatusDisplayer().setText("Das Spiel hat bereits 2 Spieler.");
         game.clearBoards();
       }
     }
   }
 
+  /**
+   * Ab Version 1 liegen die Sitzungsschluessel beider Spieler in einem KEY Record je
+   * Spieler. Der eigene Schluessel wird zum Entschluesseln, der des Gegners zum
+   * Verschluesseln der Records an ihn verwendet.
+   */
+  private static void applySessionKeys(int player,
+      Savegame savegame, KeyManager self, KeyManager opponent)
+  {
+    if(savegame.getVersion() < 1)
+    {
+      return;
+    }
+    SecretKey[] keys = self.unwrapKeys(
+        savegame.records(player, Savegame.Record.KEY)
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException(
+            "no session keys for player " + player))
+            .getPayload());
+    self.setSessionKey(keys[player - 1]);
+    opponent.setSessionKey(keys[2 - player]);
+  }
+
   private static boolean loadBoardForPlayer(int player,
       Savegame savegame, KeyManager km, BattleshipGame game)
   {
@@ -157,13 +268,15 @@ public class SavegameLoader
               .findFirst()
               .orElseThrow()
               .getPayload();
-      String boarddata = km.decode(encodedBoard);
+      byte[] boarddata = savegame.getVersion() >= 1
+          ? km.unseal(encodedBoard)
+          : km.decodeBytes(encodedBoard);
       if(boarddata == null)
       {
         throw new IllegalArgumentException(
             "board data for player " + player + " could not be decoded");
       }
-      BoardData parsed = BoardData.parse(boarddata);
+      BoardData parsed = BoardData.parse(boarddata, 0, boarddata.length);
       game.putData(BoardData.KEY_SELF, parsed);
     }
     catch(NoSuchElementException noboard)
@@ -15,23 +15,22 @@
  */
 package de.nigjo.battleship.internal;
 
-import java.beans.PropertyChangeEvent;
-import java.beans.PropertyChangeListener;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import de.nigjo.battleship.BattleshipGame;
 import static de.nigjo.battleship.BattleshipGame.*;
-import de.nigjo.battleship.api.StatusDisplayer;
 import de.nigjo.battleship.data.BoardData;
 import de.nigjo.battleship.data.KeyManager;
 import de.nigjo.battleship.data.Savegame;
+import de.nigjo.battleship.util.StorageEvent;
+import de.nigjo.battleship.util.StorageListener;
 
 /**
  *
  * @author nigjo
  */
-public class StateObserver implements PropertyChangeListener
+public class StateObserver implements StorageListener
 {
   private final BattleshipGame game;
 
@@ -41,7 +40,7 @@ public class StateObserver implements PropertyChangeListener
   }
 
   @Override
-  public void propertyChange(PropertyChangeEvent pce)
+  public void propertyChange(StorageEvent pce)
   {
     Object stateValue = pce.getNewValue();
     Logger.getLogger(StateObserver.class.getName()).log(Level.FINE,
@@ -95,7 +94,7 @@ public class StateObserver implements PropertyChangeListener
         break;
       case STATE_WAIT_ATTACK:
         //Warten auf einen Schuss
-        StatusDisplayer.getDefault().setText(
+        game.getStatusDisplayer().setText(
             "Warte auf einen Schuß aus dem Gegenergebiet.");
         game.putData(KEY_PLAYER, PLAYER_OPPONENT);
         break;
@@ -104,8 +103,6 @@ public class StateObserver implements PropertyChangeListener
         //TODO: Ergebnis pruefen -> Selber oder nochmal warten.
         game.putData(KEY_PLAYER, PLAYER_SELF);
         checkAttack(playerSelf);
-
-        //TODO: Alle Schiffe getroffen? -> Ende
         break;
       }
       case STATE_WAIT_RESPONSE:
@@ -114,7 +111,6 @@ public class StateObserver implements PropertyChangeListener
         break;
       case STATE_RESPONSE:
         //TODO: Ergebnis pruefen -> Nochmal Schuss oder warten auf Gegener.
-        //TODO: Alle Schiffe getroffen? -> Ende
         boolean hit;
         {
           Savegame savegame = game.getData(Savegame.class);
@@ -123,12 +119,26 @@ public class StateObserver implements PropertyChangeListener
           {
             throw new IllegalStateException("last action was no attack");
           }
-          String encoded = rec.getPayload();
-          KeyManager km = game.getData(KeyManager.KEY_MANAGER_SELF, KeyManager.class);
-          String payload = km.decode(encoded);
+          KeyManager km = game.getKeyManager();
+          String payload = savegame.decode(rec, km)
+              .orElseThrow(() -> new IllegalArgumentException("result is not readable"));
           String[] split = payload.split(",");
           hit = Boolean.parseBoolean(split[2]);
-          game.updateState(hit ? STATE_ATTACK : STATE_WAIT_ATTACK);
+          BoardData opponent = game.getData(BoardData.KEY_OPPONENT, BoardData.class);
+          if(!opponent.hasShips())
+          {
+            opponent.markResult(
+                Integer.parseInt(split[0]), Integer.parseInt(split[1]), hit);
+          }
+          if(opponent.allSunk())
+          {
+            game.getStatusDisplayer().setText("Alle gegnerischen Schiffe versenkt.");
+            game.updateState(STATE_FINISHED);
+          }
+          else
+          {
+            game.updateState(hit ? STATE_ATTACK : STATE_WAIT_ATTACK);
+          }
         }
         game.putData(KEY_PLAYER, hit ? PLAYER_SELF : PLAYER_OPPONENT);
         break;
@@ -147,9 +157,9 @@ public class StateObserver implements PropertyChangeListener
     {
       throw new IllegalStateException("last action was no attack");
     }
-    String encoded = rec.getPayload();
-    KeyManager km = game.getData(KeyManager.KEY_MANAGER_SELF, KeyManager.class);
-    String payload = km.decode(encoded);
+    KeyManager km = game.getKeyManager();
+    String payload = savegame.decode(rec, km)
+        .orElseThrow(() -> new IllegalArgumentException("attack is not readable"));
     String[] split = payload.split(",");
     BoardData data = game.getData(BoardData.KEY_SELF, BoardData.class);
     int[] pos =
@@ -163,14 +173,22 @@ public class StateObserver implements PropertyChangeListener
     Logger.getLogger(BattleshipGame.class.getName())
         .log(Level.INFO, "{0}", message);
 
-    StatusDisplayer.getDefault().setText(message);
-    savegame.addRecord(Savegame.Record.MESSAGE, playerSelf, message);
+    game.getStatusDisplayer().setText(message);
 
     KeyManager other = game.getData(KeyManager.KEY_MANAGER_OPPONENT, KeyManager.class);
-    String response = payload + "," + hit;
-    savegame.addRecord(Savegame.Record.RESULT, 3 - playerSelf, other.encode(response));
+    String response = savegame.encode(payload + "," + hit, other);
+    savegame.batch(sg ->
+    {
+      sg.addRecord(Savegame.Record.MESSAGE, playerSelf, message);
+      sg.addRecord(Savegame.Record.RESULT, 3 - playerSelf, response);
+    });
 
-    if(hit)
+    if(data.allSunk())
+    {
+      game.getStatusDisplayer().setText("Alle eigenen Schiffe wurden versenkt.");
+      game.updateState(STATE_FINISHED);
+    }
+    else if(hit)
     {
       game.updateState(STATE_WAIT_ATTACK);
     }
@@ -219,10 +237,16 @@ public class StateObserver implements PropertyChangeListener
         {
           //Wir haben unser Ergebnis gesendet
 
+          if(game.getData(BoardData.KEY_SELF, BoardData.class).allSunk())
+          {
+            game.updateState(STATE_FINISHED);
+            break;
+          }
           //TODO: Wie kann ich erkennen, dass wir dran sind?
           String[] result = savegame
               .getAttack(lastAction,
-                  game.getData(KeyManager.KEY_MANAGER_SELF, KeyManager.class));
+                  game.getKeyManager(),
+                  game.getData(BoardData.KEY_SELF, BoardData.class));
           boolean lastAttackWasHit = Boolean.parseBoolean(result[2]);
           if(lastAttackWasHit)
           {
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024 nigjo.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.nigjo.battleship.internal;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyAgreement;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import de.nigjo.battleship.api.KeyScheme;
+
+/**
+ * Verschluesselung nach dem ECIES Prinzip mit X25519. Fuer jede Nachricht wird ein
+ * einmaliges Schluesselpaar erstellt. Aus dessen privatem Schluessel und dem
+ * oeffentlichen Schluessel des Empfaengers wird ein AES Schluessel abgeleitet.
+ *
+ * Format: {@code einmaliger oeffentlicher Schluessel | iv | AES-GCM Daten}.
+ *
+ * @author nigjo
+ */
+public class X25519KeyScheme implements KeyScheme
+{
+  public static final String NAME = "X25519";
+
+  /** Laenge eines X.509 kodierten X25519 Schluessels. */
+  private static final int PUBLIC_KEY_LENGTH = 44;
+  private static final int IV_LENGTH = 12;
+  private static final int TAG_LENGTH = 128;
+  private static final int AES_KEY_LENGTH = 16;
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  @Override
+  public String getName()
+  {
+    return NAME;
+  }
+
+  @Override
+  public KeyPair generateKeyPair() throws GeneralSecurityException
+  {
+    return KeyPairGenerator.getInstance(NAME).generateKeyPair();
+  }
+
+  @Override
+  public PublicKey toPublicKey(byte[] encoded) throws GeneralSecurityException
+  {
+    return KeyFactory.getInstance(NAME).generatePublic(new X509EncodedKeySpec(encoded));
+  }
+
+  @Override
+  public PrivateKey toPrivateKey(byte[] encoded) throws GeneralSecurityException
+  {
+    return KeyFactory.getInstance(NAME).generatePrivate(new PKCS8EncodedKeySpec(encoded));
+  }
+
+  @Override
+  public int encryptedLength(int plainLength)
+  {
+    return PUBLIC_KEY_LENGTH + IV_LENGTH + plainLength + TAG_LENGTH / 8;
+  }
+
+  @Override
+  public Encrypter encrypter(PublicKey key) throws GeneralSecurityException
+  {
+    KeyPairGenerator generator = KeyPairGenerator.getInstance(NAME);
+    KeyAgreement agreement = KeyAgreement.getInstance(NAME);
+    Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+    return (plain, offset, length) ->
+    {
+      KeyPair ephemeral = generator.generateKeyPair();
+      byte[] ephemeralKey = ephemeral.getPublic().getEncoded();
+      if(ephemeralKey.length != PUBLIC_KEY_LENGTH)
+      {
+        throw new GeneralSecurityException("unexpected key length " + ephemeralKey.length);
+      }
+      agreement.init(ephemeral.getPrivate());
+      agreement.doPhase(key, true);
+      byte[] iv = new byte[IV_LENGTH];
+      RANDOM.nextBytes(iv);
+      cipher.init(Cipher.ENCRYPT_MODE,
+          deriveKey(agreement.generateSecret(), ephemeralKey),
+          new GCMParameterSpec(TAG_LENGTH, iv));
+
+      byte[] result = Arrays.copyOf(ephemeralKey, encryptedLength(length));
+      System.arraycopy(iv, 0, result, PUBLIC_KEY_LENGTH, IV_LENGTH);
+      cipher.doFinal(plain, offset, length, result, PUBLIC_KEY_LENGTH + IV_LENGTH);
+      return result;
+    };
+  }
+
+  @Override
+  public Decrypter decrypter(PrivateKey key) throws GeneralSecurityException
+  {
+    KeyFactory factory = KeyFactory.getInstance(NAME);
+    KeyAgreement agreement = KeyAgreement.getInstance(NAME);
+    Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+    return (data, offset, length) ->
+    {
+      if(length < encryptedLength(0))
+      {
+        throw new GeneralSecurityException("encrypted data too short");
+      }
+      byte[] ephemeralKey = Arrays.copyOfRange(data, offset, offset + PUBLIC_KEY_LENGTH);
+      agreement.init(key);
+      agreement.doPhase(factory.generatePublic(new X509EncodedKeySpec(ephemeralKey)), true);
+      cipher.init(Cipher.DECRYPT_MODE,
+          deriveKey(agreement.generateSecret(), ephemeralKey),
+          new GCMParameterSpec(TAG_LENGTH, data, offset + PUBLIC_KEY_LENGTH, IV_LENGTH));
+      int header = PUBLIC_KEY_LENGTH + IV_LENGTH;
+      return cipher.doFinal(data, offset + header, length - header);
+    };
+  }
+
+  /**
+   * AES Schluessel aus dem gemeinsamen Geheimnis und dem einmaligen oeffentlichen
+   * Schluessel.
+   */
+  private static SecretKeySpec deriveKey(byte[] shared, byte[] ephemeralKey)
+      throws GeneralSecurityException
+  {
+    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    digest.update(shared);
+    digest.update(ephemeralKey);
+    return new SecretKeySpec(digest.digest(), 0, AES_KEY_LENGTH, "AES");
+  }
+
+}
@@ -16,10 +16,18 @@
 package de.nigjo.battleship.io;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Stream;
@@ -34,8 +42,17 @@ import de.nigjo.battleship.io.internal.BackupManager;
  */
 public class LocalFileManager implements SavegameStorage
 {
+  /** Anzahl der Bytes am Ende des bekannten Standes, die auf Aenderungen geprueft werden. */
+  private static final int TAIL_LENGTH = 256;
+
   private final Path saveGameFile;
-  private BufferedReader in;
+  /**
+   * Dateigroesse nach dem letzten Lesen oder Schreiben. {@code -1}, wenn der Stand der
+   * Datei unbekannt ist.
+   */
+  private long knownSize = -1;
+  /** Die letzten Bytes des bekannten Standes. */
+  private byte[] knownTail;
 
   /**
    *
@@ -56,14 +73,83 @@ public class LocalFileManager implements SavegameStorage
   {
     Logger.getLogger(SavegameLoader.class.getName())
         .log(Level.INFO, "loading game from {0}", saveGameFile.toAbsolutePath());
-    try
-    {
-      var fis = new FileInputStream(saveGameFile.toFile());
-      in = new BufferedReader(
-          new InputStreamReader(fis, StandardCharsets.UTF_8));
+    knownSize = -1;
+    return readLines().stream();
+  }
 
-      return in.lines();
+  /**
+   * Liest nur die Zeilen ab dem Ende des zuletzt gelesenen oder geschriebenen Standes.
+   * Wurde die Datei zwischenzeitlich von aussen ersetzt oder gekuerzt, wird ein leeres
+   * Optional geliefert.
+   */
+  @Override
+  public Optional<Stream<String>> getNewLines()
+  {
+    if(knownSize < 0 || !Files.isRegularFile(saveGameFile))
+    {
+      return Optional.empty();
+    }
+    List<String> lines = readLines();
+    return lines == null ? Optional.empty() : Optional.of(lines.stream());
+  }
 
+  /**
+   * Liest alle Zeilen ab {@link #knownSize}. Die neuen Bytes werden unter einer geteilten
+   * Sperre in einen Puffer gelesen, damit keine halb geschriebenen Zeilen gelesen werden.
+   * Die Datei wird nicht gemappt, sie kann also danach sofort neu geschrieben werden.
+   *
+   * Beim Nachlesen wird eine letzte Zeile ohne Zeilenende noch nicht geliefert. Sie wird
+   * beim naechsten Mal erneut gelesen. Beim vollstaendigen Lesen gehoert sie dazu.
+   *
+   * @return neue Zeilen oder {@code null}, wenn der bekannte Stand nicht mehr zur Datei
+   * passt.
+   */
+  private List<String> readLines()
+  {
+    try(FileChannel channel = FileChannel.open(saveGameFile, StandardOpenOption.READ))
+    {
+      FileLock lock = channel.lock(0, Long.MAX_VALUE, true);
+      try
+      {
+        boolean complete = knownSize < 0;
+        long offset = Math.max(0, knownSize);
+        long size = channel.size();
+        if(offset > 0 && !isKnownState(channel, size))
+        {
+          knownSize = -1;
+          return null;
+        }
+        List<String> lines = new ArrayList<>();
+        long end = offset;
+        if(size > offset)
+        {
+          byte[] data = read(channel, offset, size - offset);
+          int start = 0;
+          for(int i = 0; i < data.length; i++)
+          {
+            if(data[i] == '\n')
+            {
+              lines.add(decodeLine(data, start, i));
+              start = i + 1;
+            }
+          }
+          if(complete && start < data.length)
+          {
+            lines.add(decodeLine(data, start, data.length));
+            start = data.length;
+          }
+          end = offset + start;
+        }
+        rememberEnd(channel, end);
+        return lines;
+      }
+      finally
+      {
+        if(lock.isValid())
+        {
+          lock.release();
+        }
+      }
     }
     catch(IOException ex)
     {
@@ -71,16 +157,75 @@ public class LocalFileManager implements SavegameStorage
     }
   }
 
-  @Override
-  public void doneRead()
+  private byte[] read(FileChannel channel, long offset, long length) throws IOException
   {
-    try
+    if(length > Integer.MAX_VALUE)
     {
-      in.close();
+      throw new IOException("savegame too large: " + saveGameFile);
     }
-    catch(IOException ex)
+    ByteBuffer data = ByteBuffer.allocate((int)length);
+    while(data.hasRemaining())
     {
-      Logger.getLogger(LocalFileManager.class.getName()).log(Level.SEVERE, null, ex);
+      if(channel.read(data, offset + data.position()) < 0)
+      {
+        throw new EOFException(saveGameFile.toString());
+      }
+    }
+    return data.array();
+  }
+
+  private static String decodeLine(byte[] data, int start, int end)
+  {
+    if(end > start && data[end - 1] == '\r')
+    {
+      --end;
+    }
+    return new String(data, start, end - start, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Prueft, ob die Datei noch mit dem bekannten Stand beginnt. Dazu werden die letzten
+   * bekannten Bytes verglichen.
+   */
+  private boolean isKnownState(FileChannel channel, long size) throws IOException
+  {
+    if(size < knownSize)
+    {
+      return false;
+    }
+    ByteBuffer current = ByteBuffer.allocate(knownTail.length);
+    long pos = knownSize - knownTail.length;
+    while(current.hasRemaining())
+    {
+      int read = channel.read(current, pos + current.position());
+      if(read < 0)
+      {
+        return false;
+      }
+    }
+    return Arrays.equals(current.array(), knownTail);
+  }
+
+  private void rememberEnd(FileChannel channel, long size) throws IOException
+  {
+    ByteBuffer tail = ByteBuffer.allocate((int)Math.min(TAIL_LENGTH, size));
+    long pos = size - tail.capacity();
+    while(tail.hasRemaining())
+    {
+      if(channel.read(tail, pos + tail.position()) < 0)
+      {
+        throw new EOFException(saveGameFile.toString());
+      }
+    }
+    knownTail = tail.array();
+    knownSize = size;
+  }
+
+  private void rememberEnd() throws IOException
+  {
+    try(FileChannel channel = FileChannel.open(saveGameFile, StandardOpenOption.READ))
+    {
+      rememberEnd(channel, channel.size());
     }
   }
 
@@ -91,10 +236,10 @@ public class LocalFileManager implements SavegameStorage
     {
       var fos = new FileOutputStream(saveGameFile.toFile());
       FileLock lock = fos.getChannel().lock();
+      String lastLine = null;
       try(BufferedWriter out = new BufferedWriter(
           new OutputStreamWriter(fos, StandardCharsets.UTF_8)))
       {
-        String lastLine = null;
         Iterator<String> iterator = lines.iterator();
         while(iterator.hasNext())
         {
@@ -103,6 +248,86 @@ public class LocalFileManager implements SavegameStorage
           out.newLine();
         }
         //TODO:setIoStorage(storage);
+      }
+      finally
+      {
+        if(lock.isValid())
+        {
+          lock.release();
+        }
+      }
+      rememberEnd();
+      BackupManager.backup(this, lastLine);
+    }
+    catch(IOException ex)
+    {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  @Override
+  public boolean appendLines(Stream<String> lines)
+  {
+    if(!Files.isRegularFile(saveGameFile))
+    {
+      return false;
+    }
+    String newline = System.lineSeparator();
+    StringBuilder buffer = new StringBuilder();
+    String lastLine = null;
+    Iterator<String> iterator = lines.iterator();
+    while(iterator.hasNext())
+    {
+      lastLine = iterator.next();
+      buffer.append(lastLine).append(newline);
+    }
+    if(lastLine == null)
+    {
+      return true;
+    }
+
+    try(FileChannel channel = FileChannel.open(saveGameFile,
+        StandardOpenOption.READ, StandardOpenOption.WRITE))
+    {
+      FileLock lock = channel.lock();
+      try
+      {
+        long end = channel.size();
+        if(end > 0)
+        {
+          //Letzte Zeile ohne Zeilenende? Dann erst eine neue Zeile beginnen.
+          ByteBuffer last = ByteBuffer.allocate(1);
+          channel.read(last, end - 1);
+          if(last.get(0) != '\n')
+          {
+            buffer.insert(0, newline);
+          }
+        }
+        ByteBuffer data = StandardCharsets.UTF_8.encode(buffer.toString());
+        long pos = end;
+        try
+        {
+          while(data.hasRemaining())
+          {
+            pos += channel.write(data, pos);
+          }
+        }
+        catch(IOException ex)
+        {
+          //Alle Zeilen oder keine. Bereits geschriebene Teile wieder entfernen.
+          channel.truncate(end);
+          knownSize = -1;
+          throw ex;
+        }
+        if(knownSize == end)
+        {
+          rememberEnd(channel, pos);
+        }
+        else
+        {
+          //Es gibt Zeilen, die noch nicht gelesen wurden.
+          knownSize = -1;
+        }
 
         BackupManager.backup(this, lastLine);
       }
@@ -118,6 +343,7 @@ public class LocalFileManager implements SavegameStorage
     {
       throw new UncheckedIOException(ex);
     }
+    return true;
   }
 
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024 nigjo.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.nigjo.battleship.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Fuehrt Aufgaben nacheinander in der Reihenfolge ihres Eingangs aus, aber ohne eigenen
+ * Thread. Die Aufgaben laufen in einem gemeinsamen Executor, immer hoechstens eine
+ * gleichzeitig. Viele dieser Executoren koennen sich damit wenige Threads teilen.
+ *
+ * @author nigjo
+ */
+public class SerialExecutor implements Executor
+{
+  /** Nach so vielen Aufgaben kommen andere Executoren im gemeinsamen Pool dran. */
+  private static final int BATCH_SIZE = 64;
+
+  private final Executor pool;
+  private final Queue<Runnable> tasks;
+  private final Queue<Runnable> idleActions;
+  private final AtomicBoolean scheduled;
+
+  public SerialExecutor(Executor pool)
+  {
+    this.pool = pool;
+    this.tasks = new ConcurrentLinkedQueue<>();
+    this.idleActions = new ConcurrentLinkedQueue<>();
+    this.scheduled = new AtomicBoolean();
+  }
+
+  @Override
+  public void execute(Runnable task)
+  {
+    tasks.add(task);
+    schedule();
+  }
+
+  /**
+   * Fuehrt die Aktion aus, sobald keine Aufgaben mehr anstehen. Auch Aufgaben, die von
+   * laufenden Aufgaben eingereiht werden, werden vorher abgearbeitet.
+   */
+  public void whenIdle(Runnable action)
+  {
+    idleActions.add(action);
+    schedule();
+  }
+
+  private void schedule()
+  {
+    if(scheduled.compareAndSet(false, true))
+    {
+      pool.execute(this::drain);
+    }
+  }
+
+  private void drain()
+  {
+    try
+    {
+      for(int i = 0; i < BATCH_SIZE; i++)
+      {
+        Runnable task = tasks.poll();
+        if(task == null)
+        {
+          break;
+        }
+        run(task);
+      }
+      Runnable action;
+      while(tasks.isEmpty() && (action = idleActions.poll()) != null)
+      {
+        run(action);
+      }
+    }
+    finally
+    {
+      scheduled.set(false);
+      if(!tasks.isEmpty() || !idleActions.isEmpty())
+      {
+        schedule();
+      }
+    }
+  }
+
+  private static void run(Runnable task)
+  {
+    try
+    {
+      task.run();
+    }
+    catch(RuntimeException ex)
+    {
+      Logger.getLogger(SerialExecutor.class.getName()).log(Level.SEVERE, null, ex);
+    }
+  }
+
+}
@@ -15,52 +15,86 @@
  */
 package de.nigjo.battleship.util;
 
-import java.beans.PropertyChangeListener;
-import java.beans.PropertyChangeSupport;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 /**
+ * Ablage fuer beliebige Daten. Alle Methoden koennen aus beliebigen Threads aufgerufen
+ * werden.
+ *
+ * Aenderungen werden in der Reihenfolge gemeldet, in der sie geschrieben wurden. Die
+ * Empfaenger werden immer im schreibenden Thread aufgerufen, bevor {@code put()}
+ * zurueckkehrt. Andere Threads warten so lange mit ihren Aenderungen. Schreibt ein
+ * Empfaenger selbst, wird diese Aenderung nach dem aktuellen Ereignis gemeldet.
  *
  * @author nigjo
  */
 public class Storage
 {
   private final Map<String, Object> data;
-  private final PropertyChangeSupport pcs;
+  /**
+   * Alle Werte je Klasse. Wird zusammen mit {@link #data} unter der Sperre des
+   * Schluessels gepflegt.
+   */
+  private final Map<Class<?>, Map<String, Object>> byType;
+  /**
+   * Empfaenger je Schluessel. Die Arrays werden nie veraendert, sondern bei jeder
+   * Anmeldung ersetzt. Ein Schluessel ohne Empfaenger hat keinen Eintrag.
+   */
+  private final Map<String, StorageListener[]> listeners;
+  private static final StorageListener[] NO_LISTENERS = new StorageListener[0];
+  /**
+   * Wird vom Schreiben bis zum Ende der Meldungen gehalten. Damit melden alle Threads
+   * ihre Aenderungen in der Reihenfolge, in der sie geschrieben wurden.
+   */
+  private final ReentrantLock writeLock;
+  /** Noch nicht gemeldete Ereignisse des aktuellen Threads. */
+  private final ThreadLocal<ArrayDeque<StorageEvent>> pendingEvents;
 
-  private static Storage instance;
+  private static final class DefaultHolder
+  {
+    private static final Storage INSTANCE = new Storage();
+  }
 
   public static Storage getDefault()
   {
-    if(instance == null)
-    {
-      instance = new Storage();
-    }
-    return instance;
+    return DefaultHolder.INSTANCE;
   }
 
   public Storage()
   {
-    this.data = new HashMap<>();
-    this.pcs = new PropertyChangeSupport(this);
+    this.data = new ConcurrentHashMap<>();
+    this.byType = new ConcurrentHashMap<>();
+    this.listeners = new ConcurrentHashMap<>();
+    this.writeLock = new ReentrantLock();
+    this.pendingEvents = ThreadLocal.withInitial(ArrayDeque::new);
   }
 
   public void put(String key, Object value)
   {
-    if(value == null)
+    writeLock.lock();
+    try
     {
-      Object old = data.remove(key);
-      pcs.firePropertyChange(key, old, null);
+      data.compute(key, (k, old) ->
+      {
+        updateIndex(k, old, value);
+        queuePropertyChange(k, old, value);
+        return value;
+      });
+      dispatchPending();
     }
-    else
+    finally
     {
-      Object old = data.put(key, value);
-      pcs.firePropertyChange(key, old, value);
+      writeLock.unlock();
     }
   }
 
@@ -114,13 +148,32 @@ public class Storage
     Object value = data.get(key);
     if(value == null)
     {
+      //Nicht innerhalb von compute(), der Supplier darf selbst auf den Storage zugreifen.
       T defVal = def.get();
-      if(defVal != null)
+      if(defVal == null)
+      {
+        return null;
+      }
+      writeLock.lock();
+      try
       {
-        Object old = data.put(key, defVal);
-        pcs.firePropertyChange(key, old, defVal);
+        value = data.compute(key, (k, old) ->
+        {
+          if(old != null)
+          {
+            //anderer Thread war schneller.
+            return old;
+          }
+          updateIndex(k, null, defVal);
+          queuePropertyChange(k, null, defVal);
+          return defVal;
+        });
+        dispatchPending();
+      }
+      finally
+      {
+        writeLock.unlock();
       }
-      return defVal;
     }
     return type.cast(value);
   }
@@ -143,34 +196,162 @@ public class Storage
     }
   }
 
+  /**
+   * Liefert alle Werte des Typs als unveraenderliche Kopie ohne doppelte Werte. Dazu
+   * werden nur die passenden Klassen im Typ-Index durchsucht. Spaetere Aenderungen am
+   * Speicher sind in der Kopie nicht enthalten.
+   */
   public <T> Collection<T> getAll(Class<T> type)
   {
-    return data.values().stream()
-        .filter(type::isInstance)
-        .map(type::cast)
-        .collect(Collectors.toUnmodifiableSet());
+    Set<T> result = new HashSet<>();
+    for(Map.Entry<Class<?>, Map<String, Object>> entry : byType.entrySet())
+    {
+      if(type.isAssignableFrom(entry.getKey()))
+      {
+        for(Object value : entry.getValue().values())
+        {
+          result.add(type.cast(value));
+        }
+      }
+    }
+    return Collections.unmodifiableSet(result);
+  }
+
+  private void updateIndex(String key, Object old, Object value)
+  {
+    if(old != null)
+    {
+      byType.get(old.getClass()).remove(key);
+    }
+    if(value != null)
+    {
+      byType.computeIfAbsent(value.getClass(), c -> new ConcurrentHashMap<>())
+          .put(key, value);
+    }
+  }
+
+  /**
+   * Reiht ein Ereignis fuer die Empfaenger des Schluessels ein. Wie bei
+   * {@code PropertyChangeSupport} wird bei gleichen Werten nichts gemeldet. Ohne
+   * Empfaenger wird kein Ereignis erstellt.
+   */
+  private void queuePropertyChange(String key, Object old, Object value)
+  {
+    if(!listeners.containsKey(key)
+        || (old != null && value != null && old.equals(value)))
+    {
+      return;
+    }
+    pendingEvents.get().add(new StorageEvent(this, key, old, value));
+  }
+
+  /**
+   * Meldet alle eingereihten Ereignisse des aktuellen Threads. Bei einer Aenderung aus
+   * einem Empfaenger heraus meldet der aeussere Aufruf das Ereignis. Wirft ein
+   * Empfaenger eine Exception, werden trotzdem alle Ereignisse gemeldet und danach die
+   * erste Exception geworfen.
+   */
+  private void dispatchPending()
+  {
+    if(writeLock.getHoldCount() > 1)
+    {
+      return;
+    }
+    ArrayDeque<StorageEvent> queue = pendingEvents.get();
+    Throwable failure = null;
+    StorageEvent event;
+    while((event = queue.poll()) != null)
+    {
+      StorageListener[] registered = listeners.get(event.getPropertyName());
+      if(registered == null)
+      {
+        continue;
+      }
+      for(StorageListener listener : registered)
+      {
+        try
+        {
+          listener.propertyChange(event);
+        }
+        catch(RuntimeException | Error ex)
+        {
+          if(failure == null)
+          {
+            failure = ex;
+          }
+          else
+          {
+            failure.addSuppressed(ex);
+          }
+        }
+      }
+    }
+    pendingEvents.remove();
+    if(failure instanceof Error)
+    {
+      throw (Error)failure;
+    }
+    if(failure != null)
+    {
+      throw (RuntimeException)failure;
+    }
   }
 
   public void addPropertyChangeListener(
-      String propertyName, PropertyChangeListener listener)
+      String propertyName, StorageListener listener)
   {
-    pcs.addPropertyChangeListener(propertyName, listener);
+    if(propertyName == null || listener == null)
+    {
+      return;
+    }
+    listeners.merge(propertyName, new StorageListener[]
+    {
+      listener
+    }, (known, added) ->
+    {
+      StorageListener[] all = Arrays.copyOf(known, known.length + 1);
+      all[known.length] = listener;
+      return all;
+    });
   }
 
   public void removePropertyChangeListener(
-      String propertyName, PropertyChangeListener listener)
+      String propertyName, StorageListener listener)
   {
-    pcs.removePropertyChangeListener(propertyName, listener);
+    if(propertyName == null || listener == null)
+    {
+      return;
+    }
+    listeners.computeIfPresent(propertyName, (key, known) ->
+    {
+      for(int i = 0; i < known.length; i++)
+      {
+        if(known[i].equals(listener))
+        {
+          if(known.length == 1)
+          {
+            return null;
+          }
+          StorageListener[] rest = new StorageListener[known.length - 1];
+          System.arraycopy(known, 0, rest, 0, i);
+          System.arraycopy(known, i + 1, rest, i, rest.length - i);
+          return rest;
+        }
+      }
+      return known;
+    });
   }
 
-  public PropertyChangeListener[] getPropertyChangeListeners(String propertyName)
+  public StorageListener[] getPropertyChangeListeners(String propertyName)
   {
-    return pcs.getPropertyChangeListeners(propertyName);
+    StorageListener[] registered =
+        propertyName == null ? null : listeners.get(propertyName);
+    return registered == null ? NO_LISTENERS : registered.clone();
   }
 
   public boolean hasListeners(String propertyName)
   {
-    return pcs.hasListeners(propertyName);
+    return propertyName != null && listeners.containsKey(propertyName);
   }
 
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024 nigjo.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.nigjo.battleship.util;
+
+/**
+ * Aenderung eines Wertes im {@link Storage}. Die Methoden entsprechen denen von
+ * {@code java.beans.PropertyChangeEvent}.
+ *
+ * @author nigjo
+ */
+public final class StorageEvent
+{
+  private final Storage source;
+  private final String propertyName;
+  private final Object oldValue;
+  private final Object newValue;
+
+  StorageEvent(Storage source, String propertyName, Object oldValue, Object newValue)
+  {
+    this.source = source;
+    this.propertyName = propertyName;
+    this.oldValue = oldValue;
+    this.newValue = newValue;
+  }
+
+  public Storage getSource()
+  {
+    return source;
+  }
+
+  public String getPropertyName()
+  {
+    return propertyName;
+  }
+
+  public Object getOldValue()
+  {
+    return oldValue;
+  }
+
+  public Object getNewValue()
+  {
+    return newValue;
+  }
+
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + "[" + propertyName
+        + ": " + oldValue + " -> " + newValue + "]";
+  }
+
+}
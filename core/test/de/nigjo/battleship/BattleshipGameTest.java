@@ -18,12 +18,19 @@ package de.nigjo.battleship;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Assertions;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -31,6 +38,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
 
 import de.nigjo.battleship.api.SavegameStorage;
+import de.nigjo.battleship.api.StatusDisplayer;
 import de.nigjo.battleship.data.BoardData;
 import de.nigjo.battleship.data.KeyManager;
 
@@ -82,6 +90,77 @@ public class BattleshipGameTest
     assertEquals("23", cfg.getValue());
   }
 
+  @Test
+  public void testKeyManagerInBackground()
+  {
+    BattleshipGame game = new BattleshipGame(playerId);
+    //Ohne Bedarf wird kein Schluessel erstellt.
+    assertFalse(Files.exists(playerId));
+
+    KeyManager km = game.preloadKeys().join();
+    assertNotNull(km);
+    assertSame(km, game.getKeyManager());
+    assertSame(km, game.getData(KeyManager.KEY_MANAGER_SELF, KeyManager.class));
+    assertTrue(Files.exists(playerId));
+
+    //gleicher Schluessel, bereits geprueft
+    BattleshipGame second = new BattleshipGame(playerId);
+    assertEquals(km.getPublicKey(), second.getKeyManager().getPublicKey());
+  }
+
+  @Test
+  public void testGameContext() throws Exception
+  {
+    BattleshipGame first = new BattleshipGame(playerId);
+    BattleshipGame second = new BattleshipGame(playerId);
+    List<String> firstStatus = new ArrayList<>();
+    List<String> secondStatus = new ArrayList<>();
+    first.putData(StatusDisplayer.class, firstStatus::add);
+    second.putData(StatusDisplayer.class, secondStatus::add);
+
+    GameContext.runWith(first, () ->
+    {
+      StatusDisplayer.getDefault().setText("eins");
+      GameContext.runWith(second, () -> StatusDisplayer.getDefault().setText("zwei"));
+      assertSame(first, GameContext.current().orElseThrow());
+    });
+    second.getStatusDisplayer().setText("drei");
+    assertEquals(List.of("eins"), firstStatus);
+    assertEquals(List.of("zwei", "drei"), secondStatus);
+
+    //Statusaenderungen laufen im Kontext ihres Spiels.
+    CompletableFuture<BattleshipGame> context = new CompletableFuture<>();
+    second.addPropertyChangeListener(BattleshipGame.KEY_STATE,
+        event -> context.complete(GameContext.current().orElse(null)));
+    second.updateState(BattleshipGame.STATE_FINISHED);
+    assertSame(second, context.get(10, TimeUnit.SECONDS));
+    assertEquals(BattleshipGame.STATE_FINISHED, second.getState());
+  }
+
+  @Test
+  public void testStateSnapshot() throws Exception
+  {
+    List<Runnable> pending = new ArrayList<>();
+    BattleshipGame game = new BattleshipGame(playerId, pending::add);
+    BattleshipGame.StateSnapshot initial = game.getStateSnapshot();
+    assertEquals(0, initial.getVersion());
+    CompletableFuture<BattleshipGame.StateSnapshot> next = game.nextState(0);
+
+    //Ohne "Change"-Thread bleibt der alte Status sichtbar, ohne zu blockieren.
+    game.updateState(BattleshipGame.STATE_WAIT_ATTACK);
+    game.updateState(BattleshipGame.STATE_FINISHED);
+    assertEquals(initial.getState(), game.getState());
+    assertFalse(next.isDone());
+
+    pending.forEach(Runnable::run);
+    assertEquals(BattleshipGame.STATE_FINISHED, game.getState());
+    assertEquals(2, game.getStateSnapshot().getVersion());
+    assertEquals(BattleshipGame.STATE_WAIT_ATTACK, next.get(10, TimeUnit.SECONDS).getState());
+    assertEquals(BattleshipGame.STATE_FINISHED,
+        next.join().next().get(10, TimeUnit.SECONDS).getState());
+    assertSame(game.getStateSnapshot(), game.nextState(0).join());
+  }
+
   @Test
   public void testGetConfig()
   {
@@ -150,15 +229,15 @@ public class BattleshipGameTest
 
     String expected = ""
         + "N........."
-        + "V........."
-        + "V....WHE.."
-        + "V..N......"
-        + "S..V......"
-        + "...S......"
-        + "..WHHE...."
-        + "....N....."
-        + "....S....."
-        + "..........";
+        + "V....WE..."
+        + "S.N......."
+        + "..V......."
+        + "..V......."
+        + "..S......."
+        + ".........."
+        + "WHHHE....."
+        + ".........."
+        + ".......WHE";
 
     BoardData self = game.getData(BoardData.KEY_SELF, BoardData.class);
     assertEquals(expected, self.toString());
@@ -177,16 +256,16 @@ public class BattleshipGameTest
 
     String expected = ""
         + "............"
-        + ".N...WHHHHE."
-        + ".V.........."
-        + ".S.........."
-        + "....WHHHHHE."
-        + ".......WHHHE"
         + "............"
-        + "........N..."
-        + "........V..."
-        + "........V..."
-        + "........S..."
+        + "............"
+        + ".WHE...N...."
+        + ".......V...."
+        + "WHHHHE.V...."
+        + "......NV...."
+        + "......VV...."
+        + "......VV...."
+        + "......SS...."
+        + ".....WHHHE.."
         + "............";
 
     BattleshipGame game = new BattleshipGame(playerId);
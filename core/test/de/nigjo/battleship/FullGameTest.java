@@ -22,6 +22,9 @@ import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.Assertions;
@@ -107,7 +110,7 @@ public class FullGameTest
         DynamicTest.dynamicTest("loadPlayer2-state",
             () -> validateState(player2Ref.get(), BattleshipGame.STATE_PLACEMENT)),
         DynamicTest.dynamicTest("initPlayer2",
-            () -> initPlayer(player2Ref.get(), rnd2, 7)),
+            () -> initPlayer(player2Ref.get(), rnd2, 9)),
         DynamicTest.dynamicTest("initPlayer2-state",
             () -> validateState(player2Ref.get(), BattleshipGame.STATE_WAIT_START))
     );
@@ -140,11 +143,24 @@ public class FullGameTest
   private void validateState(BattleshipGame player, String expected)
   {
     System.err.println("- validateState()");
+    BattleshipGame.StateSnapshot state = player.getStateSnapshot();
     player.updateState();
 
-    String state = player.getState();
-
-    assertEquals(expected, state);
+    //Der Status wird asynchron gesetzt. Alle folgenden Staende pruefen, bis der
+    //erwartete erreicht ist.
+    try
+    {
+      while(!expected.equals(state.getState()))
+      {
+        state = state.next().get(10, TimeUnit.SECONDS);
+      }
+    }
+    catch(InterruptedException | ExecutionException | TimeoutException ex)
+    {
+      //Der letzte Status wird als Fehler gemeldet.
+    }
+
+    assertEquals(expected, state.getState());
   }
 
   private void createFilebasedGame(BattleshipGame player1) throws IOException
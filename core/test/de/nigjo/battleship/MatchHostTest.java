@@ -0,0 +1,202 @@
+/*
+ * Copyright 2024 nigjo.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.nigjo.battleship;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.nigjo.battleship.api.StatusDisplayer;
+import de.nigjo.battleship.data.BoardData;
+import de.nigjo.battleship.data.KeyManager;
+import de.nigjo.battleship.io.LocalFileManager;
+
+/**
+ * Lasttest fuer viele gleichzeitige Spiele ueber Dateien. Die Anzahl der Spiele wird
+ * mit {@code -Dbattleship.loadtest.matches=10000} erhoeht. Der Durchsatz wird nur
+ * protokolliert.
+ *
+ * @author nigjo
+ */
+public class MatchHostTest
+{
+  private static final String MATCHES_PROPERTY = "battleship.loadtest.matches";
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void testNotHosted()
+  {
+    try(MatchHost host = new MatchHost(1))
+    {
+      BattleshipGame game = new BattleshipGame(tempDir.resolve("player.id"), Runnable::run);
+      assertThrows(IllegalArgumentException.class, () -> host.submit(game, g ->
+      {
+      }));
+    }
+  }
+
+  @Test
+  public void testManyMatches() throws Exception
+  {
+    int matches = Integer.getInteger(MATCHES_PROPERTY, 100);
+    Logger quiet = Logger.getLogger("de.nigjo.battleship");
+    Level oldLevel = quiet.getLevel();
+    quiet.setLevel(Level.WARNING);
+
+    Path player1 = tempDir.resolve("player1.id");
+    Path player2 = tempDir.resolve("player2.id");
+    //Die Schluesseldateien vorab erstellen. Alle Spiele teilen sich die Spieler.
+    new KeyManager(player1);
+    new KeyManager(player2);
+
+    AtomicInteger moves = new AtomicInteger();
+    try(MatchHost host = new MatchHost(Runtime.getRuntime().availableProcessors()))
+    {
+      long start = System.nanoTime();
+      List<CompletableFuture<String>> results = new ArrayList<>(matches);
+      for(int i = 0; i < matches; i++)
+      {
+        Path gamefile = tempDir.resolve("match" + i + ".bsg");
+        Random rnd = new Random(i);
+        BattleshipGame p1 = createGame(host, player1);
+        BattleshipGame p2 = createGame(host, player2);
+        Match match = new Match(host, p1, p2, rnd, moves);
+        results.add(host
+            .submit(p1, g -> g.createNewGame(new LocalFileManager(gamefile)))
+            .thenCompose(s -> host.submit(p2, g ->
+            {
+              g.loadSavegame(new LocalFileManager(gamefile));
+              placeShips(g, rnd);
+            }))
+            .thenCompose(s -> host.submit(p1, g ->
+            {
+              g.reload();
+              placeShips(g, rnd);
+            }))
+            .thenCompose(match::next));
+      }
+      CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+          .get(10, TimeUnit.MINUTES);
+      long duration = System.nanoTime() - start;
+
+      for(CompletableFuture<String> result : results)
+      {
+        assertEquals(BattleshipGame.STATE_FINISHED, result.join());
+      }
+      double seconds = duration / 1e9;
+      System.out.printf("%d matches, %d moves in %.1fs: %.0f matches/s, %.0f moves/s%n",
+          matches, moves.get(), seconds, matches / seconds, moves.get() / seconds);
+    }
+    finally
+    {
+      quiet.setLevel(oldLevel);
+    }
+  }
+
+  private static BattleshipGame createGame(MatchHost host, Path playerId)
+  {
+    BattleshipGame game = host.createGame(playerId);
+    game.putData(StatusDisplayer.class, text ->
+    {
+    });
+    return game;
+  }
+
+  private static void placeShips(BattleshipGame game, Random rnd)
+  {
+    game.putData(BoardData.KEY_SELF,
+        BoardData.generateRandom(10, rnd, BoardData.GAME_SIMPLE));
+    game.storeOwnBoard();
+  }
+
+  /**
+   * Spielt abwechselnd Schuss und Antwort, bis ein Spieler alle Schiffe versenkt hat.
+   */
+  private static class Match
+  {
+    private final MatchHost host;
+    private final BattleshipGame[] players;
+    private final List<List<int[]>> targets = new ArrayList<>();
+    private final AtomicInteger moves;
+
+    Match(MatchHost host, BattleshipGame p1, BattleshipGame p2, Random rnd,
+        AtomicInteger moves)
+    {
+      this.host = host;
+      this.players = new BattleshipGame[]
+      {
+        p1, p2
+      };
+      this.moves = moves;
+      for(int p = 0; p < 2; p++)
+      {
+        List<int[]> cells = new ArrayList<>();
+        for(int x = 0; x < 10; x++)
+        {
+          for(int y = 0; y < 10; y++)
+          {
+            cells.add(new int[]
+            {
+              x, y
+            });
+          }
+        }
+        Collections.shuffle(cells, rnd);
+        targets.add(cells);
+      }
+    }
+
+    /**
+     * @param state Status von Spieler 1 nach dem letzten Zug.
+     */
+    CompletableFuture<String> next(String state)
+    {
+      if(BattleshipGame.STATE_FINISHED.equals(state))
+      {
+        return CompletableFuture.completedFuture(state);
+      }
+      int attacker = BattleshipGame.STATE_ATTACK.equals(state) ? 0 : 1;
+      BattleshipGame offense = players[attacker];
+      BattleshipGame defense = players[1 - attacker];
+      int[] cell = targets.get(attacker).remove(0);
+      moves.incrementAndGet();
+      return host.submit(offense, g -> g.attack(cell[0], cell[1]))
+          .thenCompose(s -> host.submit(defense, BattleshipGame::reload))
+          .thenCompose(s -> host.submit(offense, BattleshipGame::reload))
+          .thenCompose(s -> attacker == 0
+          ? CompletableFuture.completedFuture(s)
+          : host.submit(players[0], g ->
+          {
+          }))
+          .thenCompose(this::next);
+    }
+  }
+
+}
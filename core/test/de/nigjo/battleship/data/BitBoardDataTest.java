@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024 nigjo.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.nigjo.battleship.data;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author nigjo
+ */
+public class BitBoardDataTest
+{
+  @Test
+  public void testSameFormatAsBoardData()
+  {
+    BoardData classic = BoardData.generateRandom(10, new Random(4711), BoardData.GAME_CLASSIC);
+    BitBoardData bits = BitBoardData.generateRandom(10, new Random(4711), BoardData.GAME_CLASSIC);
+
+    assertEquals(classic.toString(), bits.toString());
+    assertEquals(classic.toString(), BitBoardData.parse(classic.toString()).toString());
+    for(int y = 0; y < 10; y++)
+    {
+      for(int x = 0; x < 10; x++)
+      {
+        assertEquals(classic.shipIdAt(x, y), bits.shipIdAt(x, y));
+        assertEquals(classic.stateAt(x, y), bits.stateAt(x, y));
+      }
+    }
+  }
+
+  @Test
+  public void testBoardQueries()
+  {
+    int size = 37;
+    BoardData classic = BoardData.generateRandom(size, new Random(42), BoardData.GAME_CLASSIC);
+    BitBoardData bits = BitBoardData.parse(classic.toString());
+
+    Random shots = new Random(23);
+    for(int i = 0; i < 400; i++)
+    {
+      int x = shots.nextInt(size);
+      int y = shots.nextInt(size);
+      assertEquals(classic.shootAt(x, y), bits.shootAt(x, y));
+    }
+
+    assertEquals(classic.toString(), bits.toString());
+    assertEquals(classic.remainingShipCells(), bits.remainingShipCells());
+    assertEquals(classic.unshotCells(), bits.unshotCells());
+    assertEquals(classic.hitCount(), bits.hitCount());
+    assertEquals(30, bits.remainingShipCells() + bits.hitCount());
+  }
+
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2024 nigjo.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.nigjo.battleship.data;
+
+import java.lang.management.ManagementFactory;
+import java.nio.CharBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author nigjo
+ */
+public class BoardDataTest
+{
+  @Test
+  public void testCollisionKeepsBoard()
+  {
+    BoardData board = new BoardData(10);
+    String empty = board.toString();
+    assertThrows(IllegalArgumentException.class,
+        () -> board.placeShip(-1, 0, 0, 2, false));
+    assertThrows(IllegalArgumentException.class,
+        () -> board.placeShip(1, 0, 0, 0, false));
+    assertEquals(empty, board.toString());
+    assertFalse(board.hasShips());
+
+    board.placeShip(1, 2, 2, 4, false);
+    String before = board.toString();
+
+    assertThrows(IllegalArgumentException.class,
+        () -> board.placeShip(2, 3, 0, 5, true));
+    assertEquals(before, board.toString());
+  }
+
+  @Test
+  public void testRemoveShip()
+  {
+    BoardData board = new BoardData(10);
+    String empty = board.toString();
+    board.placeShip(1, 2, 2, 4, false);
+    String single = board.toString();
+    board.placeShip(2, 0, 3, 5, true);
+    assertThrows(IllegalArgumentException.class,
+        () -> board.placeShip(2, 6, 6, 2, false));
+
+    assertTrue(board.removeShip(2));
+    assertEquals(single, board.toString());
+    assertFalse(board.removeShip(2));
+    assertTrue(board.hasShips());
+
+    assertTrue(board.removeShip(1));
+    assertEquals(empty, board.toString());
+    assertFalse(board.hasShips());
+  }
+
+  @Test
+  public void testParseFormats()
+  {
+    BoardData board = BoardData.generateRandom(10, 4711L, BoardData.GAME_CLASSIC);
+    board.shootAt(3, 4);
+    String text = board.toString();
+
+    CharBuffer chars = CharBuffer.allocate(120);
+    board.writeTo(chars);
+    chars.flip();
+    assertEquals(text, chars.toString());
+    assertEquals(text, BoardData.parse(chars).toString());
+
+    byte[] bytes = new byte[110];
+    assertEquals(100, board.writeTo(bytes, 10));
+    assertEquals(text, BoardData.parse(bytes, 10, 100).toString());
+
+    assertThrows(IllegalArgumentException.class,
+        () -> BoardData.parse("X".repeat(100)));
+  }
+
+  @Test
+  public void testSunkShips()
+  {
+    BoardData board = new BoardData(10);
+    board.placeShip(1, 0, 0, 2, false);
+    board.placeShip(2, 0, 2, 3, true);
+    assertEquals(2, board.remainingShips());
+
+    board.shootAt(0, 0);
+    board.shootAt(0, 0);
+    assertFalse(board.isSunk(1));
+    board.shootAt(1, 0);
+    assertTrue(board.isSunk(1));
+    assertEquals(1, board.remainingShips());
+    assertFalse(board.allSunk());
+
+    //IDs nach dem Einlesen neu vergeben
+    BoardData parsed = BoardData.parse(board.toString());
+    assertTrue(parsed.isSunk(1));
+    assertFalse(parsed.isSunk(2));
+    assertEquals(2, parsed.shipIdAt(0, 4));
+
+    for(int y = 2; y < 5; y++)
+    {
+      board.shootAt(0, y);
+      parsed.shootAt(0, y);
+    }
+    assertTrue(board.allSunk());
+    assertTrue(parsed.allSunk());
+    assertEquals(0, parsed.remainingShips());
+  }
+
+  @Test
+  public void testOpponentFleet()
+  {
+    BoardData opponent = new BoardData(10);
+    opponent.setOpponent(true);
+    opponent.setFleet(2, 1);
+
+    opponent.shootAt(4, 4);
+    opponent.markResult(4, 4, true);
+    opponent.markResult(4, 4, true);
+    opponent.markResult(5, 4, false);
+    assertFalse(opponent.allSunk());
+    opponent.markResult(4, 5, true);
+    opponent.markResult(7, 7, true);
+    assertTrue(opponent.allSunk());
+  }
+
+  /**
+   * Platzieren und Entfernen eines Schiffes darf keinen Speicher anfordern.
+   */
+  @Test
+  public void testPlaceShipWithoutAllocation()
+  {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)bean;
+    assumeTrue(threads.isThreadAllocatedMemorySupported());
+    threads.setThreadAllocatedMemoryEnabled(true);
+
+    BoardData board = new BoardData(10);
+    board.placeShip(1, 0, 0, 5, false);
+    //Aufwaermen
+    placeAndRemove(board, 200_000);
+
+    long threadId = Thread.currentThread().getId();
+    long before = threads.getThreadAllocatedBytes(threadId);
+    placeAndRemove(board, 1_000_000);
+    long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+    assertTrue(allocated < 1024, "allocated " + allocated + " bytes");
+  }
+
+  private static void placeAndRemove(BoardData board, int count)
+  {
+    for(int i = 0; i < count; i++)
+    {
+      int x = i % 7;
+      int y = 1 + i % 9;
+      board.placeShip(2, x, y, 4, false);
+      board.removeShip(2);
+    }
+  }
+
+}
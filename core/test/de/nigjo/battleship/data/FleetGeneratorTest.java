@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024 nigjo.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.nigjo.battleship.data;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author nigjo
+ */
+public class FleetGeneratorTest
+{
+  @Test
+  public void testDenseBoard()
+  {
+    //30 Schiffsfelder auf 36 Feldern.
+    BoardData board = BoardData.generateRandom(6, new Random(1), BoardData.GAME_CLASSIC);
+
+    assertEquals(30, board.remainingShipCells());
+  }
+
+  @Test
+  public void testSameSeedSameBoard()
+  {
+    BoardData first = BoardData.generateRandom(8, 4711L, BoardData.GAME_CLASSIC);
+    BoardData second = BoardData.generateRandom(8, 4711L, BoardData.GAME_CLASSIC);
+
+    assertEquals(first.toString(), second.toString());
+  }
+
+  @Test
+  public void testNoPlacementPossible()
+  {
+    assertThrows(IllegalArgumentException.class,
+        () -> BoardData.generateRandom(5, new Random(1), BoardData.GAME_CLASSIC));
+    assertThrows(IllegalArgumentException.class,
+        () -> BoardData.generateRandom(4, new Random(1), 5));
+
+    //Ohne Vorpruefung wuerde die Suche alle Aufstellungen durchprobieren.
+    int[] tooMany = new int[101];
+    Arrays.fill(tooMany, 1);
+    assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertThrows(
+        IllegalArgumentException.class,
+        () -> BoardData.generateRandom(10, new Random(1), tooMany)));
+  }
+
+}
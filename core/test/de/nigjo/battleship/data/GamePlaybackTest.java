@@ -0,0 +1,168 @@
+/*
+ * Copyright 2024 nigjo.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.nigjo.battleship.data;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import javax.crypto.SecretKey;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.nigjo.battleship.api.SavegameStorage;
+
+/**
+ *
+ * @author nigjo
+ */
+public class GamePlaybackTest
+{
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void testVersion0()
+  {
+    KeyManager player1 = new KeyManager(tempDir.resolve("player1.key"));
+    Savegame savegame = load(
+        "VERSION:1,0",
+        "ATTACK:1," + player1.encode("3,4"),
+        "ATTACK:1," + player1.encode("5,6"));
+
+    BoardData board = new BoardData(10);
+    GamePlayback.from(savegame).asPlayer(1).with(player1).to(board);
+    assertEquals(BoardData.SHOOTED_AT, board.stateAt(3, 4) & BoardData.SHOOTED_AT);
+    assertEquals(98, board.unshotCells());
+  }
+
+  @Test
+  public void testVersion1()
+  {
+    KeyManager player1 = new KeyManager(tempDir.resolve("player1.key"));
+    KeyManager toPlayer1 = new KeyManager(player1.getPublicKey());
+    toPlayer1.setSessionKey(KeyManager.createSessionKey());
+    Savegame savegame = load(
+        "VERSION:1,1",
+        "ATTACK:1," + toPlayer1.encode("3,4"));
+
+    BoardData board = new BoardData(10);
+    assertThrows(IllegalStateException.class,
+        () -> GamePlayback.from(savegame).asPlayer(1).with(player1).to(board));
+
+    player1.setSessionKey(player1.unwrapKeys(toPlayer1.wrapKeys(
+        KeyManager.createSessionKey()))[0]);
+    assertThrows(IllegalArgumentException.class,
+        () -> GamePlayback.from(savegame).asPlayer(1).with(player1).to(board));
+  }
+
+  @Test
+  public void testParallelDecode()
+  {
+    KeyManager player1 = new KeyManager(tempDir.resolve("player1.key"));
+    KeyManager toPlayer1 = new KeyManager(player1.getPublicKey());
+    SecretKey session = KeyManager.createSessionKey();
+    toPlayer1.setSessionKey(session);
+    player1.setSessionKey(session);
+
+    List<String> lines = new ArrayList<>();
+    lines.add("VERSION:1,1");
+    for(int i = 0; i < 100; i++)
+    {
+      lines.add("ATTACK:1," + toPlayer1.encode((i % 10) + "," + (i / 10 % 7)));
+      lines.add("RESULT:1," + toPlayer1.encode(i % 10 + "," + (i / 10) + "," + (i % 3 == 0)));
+    }
+    Savegame savegame = load(lines.toArray(String[]::new));
+
+    BoardData sequentialOwn = new BoardData(10);
+    BoardData sequentialOpponent = new BoardData(10);
+    sequentialOpponent.setOpponent(true);
+    GamePlayback.from(savegame).asPlayer(1).with(player1).using(Runnable::run)
+        .to(sequentialOwn);
+    GamePlayback.from(savegame).asPlayer(1).with(player1).using(Runnable::run)
+        .to(sequentialOpponent);
+
+    ExecutorService pool = Executors.newFixedThreadPool(3);
+    try
+    {
+      BoardData own = new BoardData(10);
+      BoardData opponent = new BoardData(10);
+      opponent.setOpponent(true);
+      GamePlayback.from(savegame).asPlayer(1).with(player1).using(pool).to(own);
+      GamePlayback.from(savegame).asPlayer(1).with(player1).using(pool).to(opponent);
+      assertEquals(sequentialOwn.toString(), own.toString());
+      assertEquals(sequentialOpponent.toString(), opponent.toString());
+      assertEquals(30, own.unshotCells());
+
+      BoardData bothOwn = new BoardData(10);
+      BoardData bothOpponent = new BoardData(10);
+      bothOpponent.setOpponent(true);
+      GamePlayback.from(savegame).asPlayer(1).with(player1).using(pool)
+          .toBoth(bothOwn, bothOpponent);
+      assertEquals(own.toString(), bothOwn.toString());
+      assertEquals(opponent.toString(), bothOpponent.toString());
+      assertThrows(IllegalArgumentException.class,
+          () -> GamePlayback.from(savegame).asPlayer(1).with(player1)
+              .toBoth(bothOpponent, bothOwn));
+
+      //Fehler beim Entschluesseln kommen beim Aufrufer an.
+      lines.add(60, "ATTACK:1," + new KeyManager(player1.getPublicKey()).encode("1,1"));
+      Savegame broken = load(lines.toArray(String[]::new));
+      assertThrows(IllegalArgumentException.class,
+          () -> GamePlayback.from(broken).asPlayer(1).with(player1).using(pool)
+              .to(new BoardData(10)));
+    }
+    finally
+    {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testUnknownVersion()
+  {
+    KeyManager player1 = new KeyManager(tempDir.resolve("player1.key"));
+    Savegame savegame = load("VERSION:1,99");
+    assertThrows(IllegalStateException.class,
+        () -> GamePlayback.from(savegame).asPlayer(1).with(player1)
+            .to(new BoardData(10)));
+  }
+
+  private static Savegame load(String... lines)
+  {
+    return Savegame.createFromStorage(new SavegameStorage()
+    {
+      @Override
+      public Stream<String> getLines()
+      {
+        return Stream.of(lines);
+      }
+
+      @Override
+      public void storeLines(Stream<String> map)
+      {
+        throw new UnsupportedOperationException();
+      }
+    });
+  }
+
+}
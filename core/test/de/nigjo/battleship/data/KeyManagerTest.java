@@ -0,0 +1,256 @@
+/*
+ * Copyright 2024 nigjo.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.nigjo.battleship.data;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.crypto.SecretKey;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ *
+ * @author nigjo
+ */
+public class KeyManagerTest
+{
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void testReuseAfterFailure()
+  {
+    KeyManager player1 = new KeyManager(tempDir.resolve("player1.key"));
+    KeyManager player2 = new KeyManager(tempDir.resolve("player2.key"));
+
+    String forPlayer2 = new KeyManager(player2.getPublicKey()).encode("3,4");
+    String forPlayer1 = player1.encode("5,6,true");
+    assertThrows(IllegalArgumentException.class, () -> player1.decode(forPlayer2));
+    assertEquals("5,6,true", player1.decode(forPlayer1));
+    assertEquals("3,4", player2.decode(forPlayer2));
+
+    String longMessage = "x".repeat(500);
+    assertEquals(longMessage, player1.decode(player1.encode(longMessage)));
+  }
+
+  @Test
+  public void testSessionKeys()
+  {
+    KeyManager player1 = new KeyManager(tempDir.resolve("player1.key"));
+    KeyManager player2 = new KeyManager(tempDir.resolve("player2.key"));
+    KeyManager player1Public = new KeyManager(player1.getPublicKey());
+
+    SecretKey[] keys =
+    {
+      KeyManager.createSessionKey(), KeyManager.createSessionKey()
+    };
+    SecretKey[] unwrapped = player1.unwrapKeys(player1Public.wrapKeys(keys));
+    assertArrayEquals(keys[0].getEncoded(), unwrapped[0].getEncoded());
+    assertArrayEquals(keys[1].getEncoded(), unwrapped[1].getEncoded());
+
+    player1.setSessionKey(unwrapped[0]);
+    player1Public.setSessionKey(keys[0]);
+    player2.setSessionKey(keys[1]);
+    String attack = player1Public.encode("3,4");
+    assertEquals("3,4", player1.decode(attack));
+    assertThrows(IllegalArgumentException.class, () -> player2.decode(attack));
+
+    //Das Brett kann nur der Besitzer lesen, auch wenn der Gegner die Sitzung kennt.
+    String board = "N.........".repeat(10);
+    String sealed = player1Public.seal(board);
+    assertEquals(board, new String(player1.unseal(sealed), StandardCharsets.UTF_8));
+    assertThrows(IllegalArgumentException.class, () -> player2.unseal(sealed));
+  }
+
+  /**
+   * Parallele Entschluesselung mit einem Cipher je Thread. Ersetzt einen Benchmark: die
+   * Laufzeit je Record wird nur protokolliert.
+   */
+  @Test
+  public void testDecodeInThreads() throws Exception
+  {
+    KeyManager keys = new KeyManager(tempDir.resolve("player.key"));
+    List<String> encoded = IntStream.range(0, 200)
+        .mapToObj(i -> keys.encode(i + "," + i))
+        .collect(Collectors.toList());
+
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try
+    {
+      long start = System.nanoTime();
+      List<Callable<String>> tasks = encoded.stream()
+          .map(data -> (Callable<String>)() -> keys.decode(data))
+          .collect(Collectors.toList());
+      List<Future<String>> results = pool.invokeAll(tasks);
+      long duration = System.nanoTime() - start;
+      System.out.println("decoded " + encoded.size() + " records, "
+          + duration / encoded.size() / 1_000 + "us per record");
+
+      for(int i = 0; i < results.size(); i++)
+      {
+        assertEquals(i + "," + i, results.get(i).get());
+      }
+    }
+    finally
+    {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Ersetzt einen Benchmark der Verfahren: die Laufzeiten fuer Schluesselerstellung,
+   * Ver- und Entschluesselung werden nur protokolliert.
+   */
+  @ParameterizedTest
+  @ValueSource(strings =
+  {
+    "RSA", "X25519"
+  })
+  public void testKeyScheme(String scheme)
+  {
+    long start = System.nanoTime();
+    KeyManager keys = new KeyManager(tempDir.resolve("player.key"), scheme);
+    long keygen = System.nanoTime() - start;
+    assertEquals(scheme, keys.getSchemeName());
+
+    KeyManager publicKeys = new KeyManager(keys.getPublicKey());
+    assertEquals(scheme, publicKeys.getSchemeName());
+    assertEquals(keys.getFingerprint(), publicKeys.getFingerprint());
+
+    int count = 100;
+    start = System.nanoTime();
+    List<String> encoded = IntStream.range(0, count)
+        .mapToObj(i -> publicKeys.encode(i + "," + i))
+        .collect(Collectors.toList());
+    long encode = System.nanoTime() - start;
+    start = System.nanoTime();
+    for(int i = 0; i < count; i++)
+    {
+      assertEquals(i + "," + i, keys.decode(encoded.get(i)));
+    }
+    long decode = System.nanoTime() - start;
+    System.out.println(scheme + ": keygen " + keygen / 1_000 + "us"
+        + ", encode " + encode / count / 1_000 + "us"
+        + ", decode " + decode / count / 1_000 + "us per record");
+
+    //Das Verfahren wird aus der Schluesseldatei gelesen.
+    KeyManager reloaded = new KeyManager(tempDir.resolve("player.key"), "unused");
+    assertEquals(scheme, reloaded.getSchemeName());
+    assertEquals(keys.getPublicKey(), reloaded.getPublicKey());
+    assertEquals("0,0", reloaded.decode(encoded.get(0)));
+  }
+
+  @Test
+  public void testMixedSchemes()
+  {
+    KeyManager rsa = new KeyManager(tempDir.resolve("rsa.key"), "RSA");
+    KeyManager ec = new KeyManager(tempDir.resolve("ec.key"), "X25519");
+    //Bestehende Spielstaende enthalten RSA Schluessel ohne Namen.
+    assertTrue(rsa.getPublicKey().indexOf(':') < 0);
+    assertTrue(ec.getPublicKey().startsWith("X25519:"));
+
+    KeyManager ecPublic = new KeyManager(ec.getPublicKey());
+    KeyManager rsaPublic = new KeyManager(rsa.getPublicKey());
+    SecretKey key = KeyManager.createSessionKey();
+    assertArrayEquals(key.getEncoded(),
+        ec.unwrapKeys(ecPublic.wrapKeys(key))[0].getEncoded());
+    assertArrayEquals(key.getEncoded(),
+        rsa.unwrapKeys(rsaPublic.wrapKeys(key))[0].getEncoded());
+
+    String board = "N.........".repeat(10);
+    String sealed = ecPublic.seal(board);
+    assertEquals(board, new String(ec.unseal(sealed), StandardCharsets.UTF_8));
+    assertThrows(IllegalArgumentException.class, () -> rsa.unseal(sealed));
+    String forRsa = rsaPublic.encode("1,2");
+    assertThrows(IllegalArgumentException.class, () -> ec.decode(forRsa));
+
+    assertThrows(IllegalArgumentException.class,
+        () -> new KeyManager(tempDir.resolve("other.key"), "unknown"));
+  }
+
+  @Test
+  public void testBufferCoding()
+  {
+    KeyManager keys = new KeyManager(tempDir.resolve("player.key"));
+    ByteBuffer plain = ByteBuffer.allocateDirect(64);
+    ByteBuffer line = ByteBuffer.allocateDirect(512);
+    for(SecretKey session : new SecretKey[]
+    {
+      null, KeyManager.createSessionKey()
+    })
+    {
+      keys.setSessionKey(session);
+
+      //Ein Puffer fuer die ganze Zeile: Praefix und Base64 ohne Zwischenkopie.
+      line.clear();
+      line.put("ATTACK:1,".getBytes(StandardCharsets.US_ASCII));
+      plain.clear();
+      plain.put("3,4".getBytes(StandardCharsets.UTF_8)).flip();
+      keys.encode(plain, line);
+      assertEquals(0, plain.remaining());
+      line.flip();
+      String stored = StandardCharsets.US_ASCII.decode(line).toString();
+
+      CharBuffer payload = CharBuffer.wrap(stored, "ATTACK:1,".length(), stored.length());
+      plain.clear();
+      assertEquals(3, keys.decode(payload, plain));
+      plain.flip();
+      assertEquals("3,4", StandardCharsets.UTF_8.decode(plain).toString());
+      assertEquals("3,4", keys.decode(payload));
+
+      StringBuilder appended = new StringBuilder("MESSAGE:1,");
+      keys.encode("Hallo Welt!", appended);
+      assertEquals("Hallo Welt!", keys.decode(appended.subSequence(10, appended.length())));
+
+      assertThrows(BufferOverflowException.class,
+          () -> keys.decode(payload, ByteBuffer.allocate(1)));
+
+      //Alle Varianten der Base64 Auffuellung, gegen den JDK Kodierer geprueft.
+      for(String message : new String[]
+      {
+        "", "a", "ab", "abc", "x".repeat(300)
+      })
+      {
+        StringBuilder encoded = new StringBuilder();
+        keys.encode(message, encoded);
+        Base64.getDecoder().decode(encoded.toString());
+        assertEquals(message, keys.decode(encoded));
+      }
+      assertThrows(IllegalArgumentException.class,
+          () -> keys.decode("\u00e4" + stored.substring("ATTACK:1,".length() + 1)));
+    }
+  }
+
+}
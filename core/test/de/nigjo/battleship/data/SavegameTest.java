@@ -0,0 +1,299 @@
+/*
+ * Copyright 2024 nigjo.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.nigjo.battleship.data;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.nigjo.battleship.api.SavegameStorage;
+
+/**
+ *
+ * @author nigjo
+ */
+public class SavegameTest
+{
+  @Test
+  public void testConfig()
+  {
+    Savegame savegame = Savegame.createNew();
+    savegame.setConfig("size", "10");
+    savegame.setConfig("ships", "5,4,3");
+    savegame.addRecord(Savegame.Record.PLAYER, 1, "key1");
+    savegame.setConfig("size", "12");
+
+    assertEquals("12", savegame.getConfig("size").orElseThrow());
+    assertEquals("5,4,3", savegame.getConfig("ships").orElseThrow());
+    assertTrue(savegame.getConfig("unknown").isEmpty());
+
+    List<String> lines = savegame.allRecords().stream()
+        .map(Savegame.Record::toString)
+        .collect(Collectors.toList());
+    assertEquals(List.of(
+        "VERSION:1,2",
+        "CONFIG:1,size=12",
+        "CONFIG:1,ships=5,4,3",
+        "PLAYER:1,key1"), lines);
+    assertEquals(List.of("size=12", "ships=5,4,3"),
+        savegame.records(1, Savegame.Record.CONFIG)
+            .map(Savegame.Record::getPayload)
+            .collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testAppendRecords()
+  {
+    RecordingStorage storage = new RecordingStorage();
+    Savegame savegame = Savegame.createNew();
+    savegame.setConfig("size", "10");
+    savegame.store(storage);
+    assertEquals(1, storage.fullWrites);
+
+    savegame.addRecord(Savegame.Record.PLAYER, 1, "key1");
+    savegame.addRecord(Savegame.Record.MESSAGE, 1, "hallo");
+    assertEquals(1, storage.fullWrites);
+    assertEquals(List.of("VERSION:1,2", "CONFIG:1,size=10",
+        "PLAYER:1,key1", "MESSAGE:1,hallo"), storage.lines);
+
+    savegame.setConfig("size", "12");
+    assertEquals(2, storage.fullWrites);
+    savegame.addRecord(Savegame.Record.PLAYER, 2, "key2");
+    assertEquals(2, storage.fullWrites);
+    assertEquals(List.of("VERSION:1,2", "CONFIG:1,size=12",
+        "PLAYER:1,key1", "MESSAGE:1,hallo", "PLAYER:2,key2"), storage.lines);
+  }
+
+  @Test
+  public void testBatch()
+  {
+    RecordingStorage storage = new RecordingStorage();
+    Savegame savegame = Savegame.createNew();
+    savegame.setConfig("size", "10");
+    savegame.store(storage);
+
+    savegame.batch(sg ->
+    {
+      sg.addRecord(Savegame.Record.MESSAGE, 1, "Schuss");
+      sg.addRecord(Savegame.Record.ATTACK, 2, "1,1");
+      assertEquals(2, storage.lines.size());
+    });
+    assertEquals(1, storage.appends);
+    assertEquals(4, storage.lines.size());
+
+    assertThrows(IllegalArgumentException.class, () -> savegame.batch(sg ->
+    {
+      sg.setConfig("size", "12");
+      sg.addRecord(Savegame.Record.MESSAGE, 2, "Schuss");
+      sg.addRecord(Savegame.Record.RESULT, 3, "1,1,false");
+    }));
+    assertEquals(1, storage.appends);
+    assertEquals(1, storage.fullWrites);
+    assertEquals("10", savegame.getConfig("size").orElseThrow());
+    assertEquals(4, savegame.allRecords().size());
+    assertEquals(0, savegame.records(2, Savegame.Record.MESSAGE).count());
+
+    //Auch nach einem Error wird weiter gespeichert.
+    assertThrows(AssertionError.class, () -> savegame.batch(sg ->
+    {
+      sg.addRecord(Savegame.Record.MESSAGE, 2, "Schuss");
+      throw new AssertionError("kaputt");
+    }));
+    assertEquals(4, savegame.allRecords().size());
+    savegame.addRecord(Savegame.Record.MESSAGE, 2, "weiter");
+    assertEquals(2, storage.appends);
+    assertEquals(5, storage.lines.size());
+
+    //Fehler nach der ersten Zeile: der naechste Stand wird komplett geschrieben.
+    storage.failAppend = true;
+    assertThrows(UncheckedIOException.class, () -> savegame.batch(sg ->
+    {
+      sg.addRecord(Savegame.Record.MESSAGE, 1, "Schuss");
+      sg.addRecord(Savegame.Record.ATTACK, 2, "2,2");
+    }));
+    assertEquals(6, storage.lines.size());
+    assertEquals(5, savegame.allRecords().size());
+    savegame.addRecord(Savegame.Record.MESSAGE, 1, "nochmal");
+    assertEquals(2, storage.fullWrites);
+    assertEquals(savegame.allRecords().stream()
+        .map(Savegame.Record::toString)
+        .collect(Collectors.toList()), storage.lines);
+  }
+
+  @Test
+  public void testRecordsByPlayer()
+  {
+    Savegame savegame = Savegame.createNew();
+    savegame.addRecord(Savegame.Record.PLAYER, 1, "key1");
+    savegame.addRecord(Savegame.Record.PLAYER, 2, "key2");
+    for(int i = 0; i < 10; i++)
+    {
+      savegame.addRecord(Savegame.Record.ATTACK, 1 + i % 2, "a" + i);
+      savegame.addRecord(Savegame.Record.RESULT, 2 - i % 2, "r" + i);
+    }
+
+    assertEquals("key2", savegame.records(2, Savegame.Record.PLAYER)
+        .findFirst().orElseThrow().getPayload());
+    assertEquals(List.of("a1", "a3", "a5", "a7", "a9"),
+        savegame.records(2, Savegame.Record.ATTACK)
+            .map(Savegame.Record::getPayload)
+            .collect(Collectors.toList()));
+    assertEquals(0, savegame.records(2, Savegame.Record.BOARD).count());
+    assertEquals(0, savegame.records(3, Savegame.Record.ATTACK).count());
+  }
+
+  @Test
+  public void testParseLine()
+  {
+    Savegame.Record record = Savegame.Record.parseLine("ATTACK:2,abc,def");
+    assertEquals(Savegame.Record.ATTACK, record.getKind());
+    assertSame(Savegame.Record.ATTACK, record.getKind());
+    assertEquals(2, record.getPlayerid());
+    assertEquals("abc,def", record.getPayloadSequence().toString());
+    assertEquals("abc,def", record.getPayload());
+    assertEquals("ATTACK:2,abc,def", record.toString());
+    assertEquals("", Savegame.Record.parseLine("NEWKIND:1,").getPayload());
+
+    for(String invalid : new String[]
+    {
+      "", ";ATTACK:1,x", "attack:1,x", ":1,x", "ATTACK:12,x", "ATTACK:x,1",
+      "ATTACK:1", "ATTACK1,x", "ATTACK:1;x"
+    })
+    {
+      assertNull(Savegame.Record.parseLine(invalid), invalid);
+    }
+  }
+
+  /**
+   * Einlesen eines langen Spielstandes. Ersetzt einen Benchmark: die Laufzeit wird nur
+   * protokolliert.
+   */
+  @Test
+  public void testReadLongSavegame()
+  {
+    RecordingStorage storage = new RecordingStorage();
+    storage.lines.add("VERSION:1,2");
+    for(int i = 0; i < 10_000; i++)
+    {
+      storage.lines.add((i % 2 == 0 ? "ATTACK:" : "RESULT:") + (1 + i % 2) + ","
+          + "TWFnaWMgcGF5bG9hZCBudW1iZXIg" + i);
+    }
+
+    long start = System.nanoTime();
+    Savegame savegame = Savegame.createFromStorage(storage);
+    long duration = System.nanoTime() - start;
+    System.out.println("parsed 10001 records in " + duration / 1_000 + "us");
+
+    assertEquals(10_001, savegame.recordCount());
+    assertEquals(5_000, savegame.records(1, Savegame.Record.ATTACK).count());
+    assertEquals(storage.lines, savegame.allRecords().stream()
+        .map(Savegame.Record::toString)
+        .collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testDecodeCache(@TempDir Path tempDir)
+  {
+    KeyManager player1 = new KeyManager(tempDir.resolve("player1.key"));
+    KeyManager player2 = new KeyManager(tempDir.resolve("player2.key"));
+    Savegame savegame = Savegame.createNew();
+    savegame.addRecord(Savegame.Record.ATTACK, 1, savegame.encode("3,4", player1));
+    Savegame.Record attack = savegame.getLastRecord();
+
+    String decoded = savegame.decode(attack, player1).orElseThrow();
+    assertEquals("3,4", decoded);
+    assertSame(decoded, savegame.decode(attack, player1).orElseThrow());
+    assertTrue(savegame.decode(attack, player2).isEmpty());
+    assertTrue(savegame.decode(attack, player2).isEmpty());
+
+    //Neuer Sitzungsschluessel, neue Entschluesselung.
+    player1.setSessionKey(KeyManager.createSessionKey());
+    assertTrue(savegame.decode(attack, player1).isEmpty());
+  }
+
+  @Test
+  public void testRecipientFingerprint(@TempDir Path tempDir)
+  {
+    KeyManager player1 = new KeyManager(tempDir.resolve("player1.key"));
+    KeyManager player2 = new KeyManager(tempDir.resolve("player2.key"));
+    assertEquals(player1.getFingerprint(),
+        new KeyManager(player1.getPublicKey()).getFingerprint());
+    assertEquals(16, player1.getFingerprint().length());
+
+    Savegame savegame = Savegame.createNew();
+    savegame.addRecord(Savegame.Record.RESULT, 1, savegame.encode("3,4,true", player1));
+    Savegame.Record result = savegame.getLastRecord();
+    assertTrue(result.getPayload().startsWith(player1.getFingerprint() + ":"));
+    assertTrue(savegame.isAddressedTo(result, player1));
+    assertFalse(savegame.isAddressedTo(result, player2));
+    assertEquals("3,4,true", savegame.decode(result, player1).orElseThrow());
+
+    //Nur der Fingerabdruck entscheidet. Es wird nicht mehr probiert.
+    savegame.addRecord(Savegame.Record.RESULT, 1,
+        player2.getFingerprint() + ":" + player1.encode("5,6,false"));
+    assertTrue(savegame.decode(savegame.getLastRecord(), player1).isEmpty());
+  }
+
+  private static class RecordingStorage implements SavegameStorage
+  {
+    private final List<String> lines = new ArrayList<>();
+    private int fullWrites;
+    private int appends;
+    private boolean failAppend;
+
+    @Override
+    public Stream<String> getLines()
+    {
+      return lines.stream();
+    }
+
+    @Override
+    public void storeLines(Stream<String> map)
+    {
+      ++fullWrites;
+      lines.clear();
+      map.forEach(lines::add);
+    }
+
+    @Override
+    public boolean appendLines(Stream<String> map)
+    {
+      ++appends;
+      if(failAppend)
+      {
+        failAppend = false;
+        lines.add(map.findFirst().orElseThrow());
+        throw new UncheckedIOException(new IOException("disk full"));
+      }
+      map.forEach(lines::add);
+      return true;
+    }
+  }
+
+}
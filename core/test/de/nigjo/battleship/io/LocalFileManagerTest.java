@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024 nigjo.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.nigjo.battleship.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.nigjo.battleship.data.Savegame;
+
+/**
+ *
+ * @author nigjo
+ */
+public class LocalFileManagerTest
+{
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void testReadNewRecords() throws IOException
+  {
+    Path file = tempDir.resolve("game.bsg");
+    Savegame player1 = Savegame.createNew();
+    player1.setConfig("size", "10");
+    player1.store(new LocalFileManager(file));
+
+    Savegame player2 = Savegame.createFromStorage(new LocalFileManager(file));
+    assertEquals(0, player2.readNewRecords());
+
+    player1.addRecord(Savegame.Record.PLAYER, 1, "key1");
+    player1.addRecord(Savegame.Record.MESSAGE, 1, "hallo");
+    assertEquals(2, player2.readNewRecords());
+    assertEquals(0, player1.readNewRecords());
+    assertEquals(toLines(player1), toLines(player2));
+
+    //Eigene Records werden nicht erneut gelesen.
+    player2.addRecord(Savegame.Record.PLAYER, 2, "key2");
+    assertEquals(0, player2.readNewRecords());
+    assertEquals(1, player1.readNewRecords());
+    assertEquals(toLines(player1), toLines(player2));
+    assertEquals(toLines(player1), Files.readAllLines(file));
+
+    //komplett neu geschriebene Datei muss neu gelesen werden.
+    Files.write(file, Stream.of("VERSION:1,0", "CONFIG:1,size=12")
+        .collect(Collectors.toList()));
+    assertEquals(-1, player2.readNewRecords());
+    assertTrue(Savegame.createFromStorage(new LocalFileManager(file))
+        .getConfig("size").filter("12"::equals).isPresent());
+  }
+
+  @Test
+  public void testIncompleteLine() throws IOException
+  {
+    Path file = tempDir.resolve("game.bsg");
+    Savegame player1 = Savegame.createNew();
+    player1.store(new LocalFileManager(file));
+    Savegame player2 = Savegame.createFromStorage(new LocalFileManager(file));
+
+    //Ein anderer Prozess schreibt gerade noch an der Zeile.
+    Files.writeString(file, "MESSAGE:1,hal", StandardOpenOption.APPEND);
+    assertEquals(0, player2.readNewRecords());
+    Files.writeString(file, "lo\n", StandardOpenOption.APPEND);
+    assertEquals(1, player2.readNewRecords());
+    List<Savegame.Record> records = player2.allRecords();
+    assertEquals("hallo", records.get(records.size() - 1).getPayload());
+    assertEquals(0, player2.readNewRecords());
+
+    //Nach dem Lesen kann die Datei sofort neu geschrieben werden.
+    player2.store(new LocalFileManager(file));
+    assertEquals(toLines(player2), Files.readAllLines(file));
+  }
+
+  private static List<String> toLines(Savegame savegame)
+  {
+    return savegame.allRecords().stream()
+        .map(Savegame.Record::toString)
+        .collect(Collectors.toList());
+  }
+
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2024 nigjo.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.nigjo.battleship.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author nigjo
+ */
+public class StorageTest
+{
+  @Test
+  public void testListeners()
+  {
+    Storage storage = new Storage();
+    List<String> events = new ArrayList<>();
+    StorageListener first = event -> events.add("first " + event.getNewValue());
+    StorageListener second = event -> events.add("second " + event.getOldValue());
+
+    storage.put("key", "unbeobachtet");
+    assertFalse(storage.hasListeners("key"));
+    assertEquals(0, storage.getPropertyChangeListeners("key").length);
+
+    storage.addPropertyChangeListener("key", first);
+    storage.addPropertyChangeListener("key", second);
+    storage.addPropertyChangeListener("other", first);
+    assertTrue(storage.hasListeners("key"));
+    assertEquals(2, storage.getPropertyChangeListeners("key").length);
+
+    storage.put("key", "wert");
+    //Gleiche Werte werden wie bei PropertyChangeSupport nicht gemeldet.
+    storage.put("key", "wert");
+    storage.put("key", null);
+    assertEquals(List.of("first wert", "second unbeobachtet", "first null", "second wert"),
+        events);
+
+    events.clear();
+    storage.addPropertyChangeListener("key",
+        event -> assertSame(storage, event.getSource()));
+    storage.removePropertyChangeListener("key", first);
+    storage.getOrSet("key", String.class, () -> "neu");
+    assertEquals(List.of("second null"), events);
+
+    storage.removePropertyChangeListener("other", first);
+    assertFalse(storage.hasListeners("other"));
+  }
+
+  @Test
+  public void testNestedEvents()
+  {
+    Storage storage = new Storage();
+    List<String> events = new ArrayList<>();
+    storage.addPropertyChangeListener("state", event ->
+    {
+      storage.put("player", event.getNewValue() + "-player");
+      //Der Wert ist sofort sichtbar, das Ereignis folgt nach diesem Empfaenger.
+      assertEquals("start-player", storage.getString("player"));
+      events.add("state " + event.getNewValue());
+    });
+    storage.addPropertyChangeListener("player",
+        event -> events.add("player " + event.getNewValue()));
+
+    storage.put("state", "start");
+    assertEquals(List.of("state start", "player start-player"), events);
+  }
+
+  /**
+   * Ein fehlerhafter Empfaenger darf keine Ereignisse zuruecklassen. Alle Ereignisse
+   * werden gemeldet, bevor die Exception beim Schreiber ankommt.
+   */
+  @Test
+  public void testFailingListener()
+  {
+    Storage storage = new Storage();
+    List<String> events = new ArrayList<>();
+    storage.addPropertyChangeListener("state", event ->
+    {
+      storage.put("player", "eins");
+      throw new IllegalStateException("kaputt");
+    });
+    storage.addPropertyChangeListener("state",
+        event -> events.add("state " + event.getNewValue()));
+    storage.addPropertyChangeListener("player",
+        event -> events.add("player " + event.getNewValue()));
+
+    IllegalStateException ex =
+        assertThrows(IllegalStateException.class, () -> storage.put("state", "start"));
+    assertEquals("kaputt", ex.getMessage());
+    assertEquals(List.of("state start", "player eins"), events);
+
+    events.clear();
+    storage.put("player", "zwei");
+    assertEquals(List.of("player zwei"), events);
+  }
+
+  /**
+   * Mehrere Threads schreiben denselben Schluessel. Die Ereignisse muessen eine
+   * lueckenlose Kette bilden: jeder alte Wert ist der neue Wert des vorherigen
+   * Ereignisses.
+   */
+  @Test
+  public void testConcurrentWriters() throws Exception
+  {
+    Storage storage = new Storage();
+    List<StorageEvent> events = Collections.synchronizedList(new ArrayList<>());
+    List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+    storage.addPropertyChangeListener("counter", event ->
+    {
+      events.add(event);
+      threads.add(Thread.currentThread());
+    });
+
+    int writers = 4;
+    Thread[] writerThreads = new Thread[writers];
+    int writes = 2_000;
+    ExecutorService pool = Executors.newFixedThreadPool(writers);
+    try
+    {
+      List<Future<?>> running = new ArrayList<>();
+      for(int w = 0; w < writers; w++)
+      {
+        int writer = w;
+        running.add(pool.submit(() ->
+        {
+          writerThreads[writer] = Thread.currentThread();
+          for(int i = 0; i < writes; i++)
+          {
+            storage.put("counter", writer * writes + i);
+            storage.getOrSet("writer" + writer, Integer.class, () -> writer);
+          }
+        }));
+      }
+      for(Future<?> task : running)
+      {
+        task.get(30, TimeUnit.SECONDS);
+      }
+    }
+    finally
+    {
+      pool.shutdown();
+    }
+
+    assertEquals(writers * writes, events.size());
+    assertNull(events.get(0).getOldValue());
+    int[] lastPerWriter = new int[writers];
+    Arrays.fill(lastPerWriter, -1);
+    for(int i = 0; i < events.size(); i++)
+    {
+      if(i > 0)
+      {
+        assertEquals(events.get(i - 1).getNewValue(), events.get(i).getOldValue());
+      }
+      //Die Werte eines Schreibers kommen in seiner Reihenfolge an.
+      int value = (Integer)events.get(i).getNewValue();
+      assertTrue(lastPerWriter[value / writes] < value);
+      //Gemeldet wird im schreibenden Thread.
+      assertSame(writerThreads[value / writes], threads.get(i));
+      lastPerWriter[value / writes] = value;
+    }
+    assertEquals(events.get(events.size() - 1).getNewValue(), storage.get("counter",
+        Integer.class));
+    for(int w = 0; w < writers; w++)
+    {
+      assertEquals(w, storage.getInt("writer" + w, -1));
+    }
+  }
+
+  @Test
+  public void testGetAll()
+  {
+    Storage storage = new Storage();
+    assertTrue(storage.getAll(String.class).isEmpty());
+
+    storage.put("a", "eins");
+    storage.put("b", "zwei");
+    storage.put("c", 3);
+    Collection<String> strings = storage.getAll(String.class);
+    assertEquals(Set.of("eins", "zwei"), Set.copyOf(strings));
+    assertEquals(Set.of("eins", "zwei", 3), Set.copyOf(storage.getAll(Object.class)));
+    assertEquals(Set.of(3), Set.copyOf(storage.getAll(Number.class)));
+
+    //Ersetzen und Entfernen aktualisieren den Index.
+    storage.put("a", 1L);
+    storage.put("b", null);
+    storage.getOrSet("d", String.class, () -> "vier");
+    assertEquals(Set.of("vier"), Set.copyOf(storage.getAll(String.class)));
+    assertEquals(Set.of(3, 1L), Set.copyOf(storage.getAll(Number.class)));
+    assertTrue(storage.getAll(List.class).isEmpty());
+
+    //Eine Kopie ohne doppelte Werte, unabhaengig von spaeteren Aenderungen.
+    storage.put("e", "vier");
+    Collection<String> snapshot = storage.getAll(String.class);
+    assertEquals(1, snapshot.size());
+    storage.put("f", "fuenf");
+    assertEquals(Set.of("vier"), Set.copyOf(snapshot));
+  }
+
+}
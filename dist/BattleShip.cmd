@@ -0,0 +1,9 @@
+@echo off
+setlocal
+set "BATTLESHIP_cp=%~dp0BattleShip.jar;%~dp0lib\BattleShip-core.jar"
+if not defined JAVA_HOME (
+  for /F "delims=*" %%J in ('where javaw.exe') do (
+    if exist "%%~dpJ..\bin\javaw.exe" set "JAVA_HOME=%%~dpJ.."
+  )
+)
+"%JAVA_HOME%\bin\java.exe" -cp "%BATTLESHIP_cp%" de.nigjo.battleship.Launcher %*
@@ -0,0 +1 @@
+memberSearchIndex = [{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"addPropertyChangeListener(String, StorageListener)","u":"addPropertyChangeListener(java.lang.String,de.nigjo.battleship.util.StorageListener)"},{"p":"de.nigjo.battleship.util","c":"Storage","l":"addPropertyChangeListener(String, StorageListener)","u":"addPropertyChangeListener(java.lang.String,de.nigjo.battleship.util.StorageListener)"},{"p":"de.nigjo.battleship.data","c":"Savegame","l":"addRecord(Savegame.Record)","u":"addRecord(de.nigjo.battleship.data.Savegame.Record)"},{"p":"de.nigjo.battleship.data","c":"Savegame","l":"addRecord(String, int, String)","u":"addRecord(java.lang.String,int,java.lang.String)"},{"p":"de.nigjo.battleship.data","c":"Savegame","l":"allRecords()"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"allSunk()"},{"p":"de.nigjo.battleship.api","c":"SavegameStorage","l":"appendLines(Stream<String>)","u":"appendLines(java.util.stream.Stream)"},{"p":"de.nigjo.battleship.io","c":"LocalFileManager","l":"appendLines(Stream<String>)","u":"appendLines(java.util.stream.Stream)"},{"p":"de.nigjo.battleship.data","c":"GamePlayback","l":"asPlayer(int)"},{"p":"de.nigjo.battleship.data","c":"Savegame.Record","l":"ATTACK"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"attack(int, int)","u":"attack(int,int)"},{"p":"de.nigjo.battleship.io.internal","c":"BackupManager","l":"backup(LocalFileManager, String)","u":"backup(de.nigjo.battleship.io.LocalFileManager,java.lang.String)"},{"p":"de.nigjo.battleship.io.internal","c":"BackupManager","l":"BackupManager()","u":"%3Cinit%3E()"},{"p":"de.nigjo.battleship.data","c":"Savegame","l":"batch(Consumer<Savegame>)","u":"batch(java.util.function.Consumer)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"BattleshipGame(Path)","u":"%3Cinit%3E(java.nio.file.Path)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"BattleshipGame(Path, Consumer<Runnable>)","u":"%3Cinit%3E(java.nio.file.Path,java.util.function.Consumer)"},{"p":"de.nigjo.battleship.data","c":"BitBoardData","l":"BitBoardData(int)","u":"%3Cinit%3E(int)"},{"p":"de.nigjo.battleship.data","c":"Savegame.Record","l":"BOARD"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"BoardData(int)","u":"%3Cinit%3E(int)"},{"p":"de.nigjo.battleship.util","c":"Bundle","l":"Bundle()","u":"%3Cinit%3E()"},{"p":"de.nigjo.battleship","c":"GameContext","l":"callWith(BattleshipGame, Supplier<T>)","u":"callWith(de.nigjo.battleship.BattleshipGame,java.util.function.Supplier)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"clearBoard(boolean)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"clearBoards()"},{"p":"de.nigjo.battleship.io.internal","c":"SavegameManager","l":"close()"},{"p":"de.nigjo.battleship","c":"MatchHost","l":"close()"},{"p":"de.nigjo.battleship.data","c":"Savegame.Record","l":"CONFIG"},{"p":"de.nigjo.battleship","c":"BattleshipGame.Config","l":"Config(String, String)","u":"%3Cinit%3E(java.lang.String,java.lang.String)"},{"p":"de.nigjo.battleship.data","c":"Savegame","l":"createFromStorage(SavegameStorage)","u":"createFromStorage(de.nigjo.battleship.api.SavegameStorage)"},{"p":"de.nigjo.battleship","c":"MatchHost","l":"createGame(Path)","u":"createGame(java.nio.file.Path)"},{"p":"de.nigjo.battleship.data","c":"Savegame","l":"createNew()"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"createNewGame(SavegameStorage)","u":"createNewGame(de.nigjo.battleship.api.SavegameStorage)"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"createSessionKey()"},{"p":"de.nigjo.battleship.data","c":"Savegame","l":"CURRENT_VERSION"},{"p":"de.nigjo.battleship","c":"GameContext","l":"current()"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"decode(CharSequence)","u":"decode(java.lang.CharSequence)"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"decode(CharSequence, ByteBuffer)","u":"decode(java.lang.CharSequence,java.nio.ByteBuffer)"},{"p":"de.nigjo.battleship.data","c":"Savegame","l":"decode(Savegame.Record, KeyManager)","u":"decode(de.nigjo.battleship.data.Savegame.Record,de.nigjo.battleship.data.KeyManager)"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"decodeBytes(String)","u":"decodeBytes(java.lang.String)"},{"p":"de.nigjo.battleship.api","c":"KeyScheme.Decrypter","l":"decrypt(byte[], int, int)","u":"decrypt(byte[],int,int)"},{"p":"de.nigjo.battleship.api","c":"KeyScheme","l":"decrypter(PrivateKey)","u":"decrypter(java.security.PrivateKey)"},{"p":"de.nigjo.battleship.internal","c":"RsaKeyScheme","l":"decrypter(PrivateKey)","u":"decrypter(java.security.PrivateKey)"},{"p":"de.nigjo.battleship.internal","c":"X25519KeyScheme","l":"decrypter(PrivateKey)","u":"decrypter(java.security.PrivateKey)"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"DEFAULT_SCHEME"},{"p":"de.nigjo.battleship.api","c":"SavegameStorage","l":"doneRead()"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"encode(ByteBuffer, ByteBuffer)","u":"encode(java.nio.ByteBuffer,java.nio.ByteBuffer)"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"encode(CharSequence, Appendable)","u":"encode(java.lang.CharSequence,java.lang.Appendable)"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"encode(String)","u":"encode(java.lang.String)"},{"p":"de.nigjo.battleship.data","c":"Savegame","l":"encode(String, KeyManager)","u":"encode(java.lang.String,de.nigjo.battleship.data.KeyManager)"},{"p":"de.nigjo.battleship.api","c":"KeyScheme.Encrypter","l":"encrypt(byte[], int, int)","u":"encrypt(byte[],int,int)"},{"p":"de.nigjo.battleship.api","c":"KeyScheme","l":"encryptedLength(int)"},{"p":"de.nigjo.battleship.internal","c":"RsaKeyScheme","l":"encryptedLength(int)"},{"p":"de.nigjo.battleship.internal","c":"X25519KeyScheme","l":"encryptedLength(int)"},{"p":"de.nigjo.battleship.api","c":"KeyScheme","l":"encrypter(PublicKey)","u":"encrypter(java.security.PublicKey)"},{"p":"de.nigjo.battleship.internal","c":"RsaKeyScheme","l":"encrypter(PublicKey)","u":"encrypter(java.security.PublicKey)"},{"p":"de.nigjo.battleship.internal","c":"X25519KeyScheme","l":"encrypter(PublicKey)","u":"encrypter(java.security.PublicKey)"},{"p":"de.nigjo.battleship.util","c":"SerialExecutor","l":"execute(Runnable)","u":"execute(java.lang.Runnable)"},{"p":"de.nigjo.battleship.util","c":"Storage","l":"find(Class<T>)","u":"find(java.lang.Class)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"findData(Class<T>)","u":"findData(java.lang.Class)"},{"p":"de.nigjo.battleship.data","c":"GamePlayback","l":"from(Savegame)","u":"from(de.nigjo.battleship.data.Savegame)"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"GAME_CLASSIC"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"GAME_SIMPLE"},{"p":"de.nigjo.battleship.api","c":"KeyScheme","l":"generateKeyPair()"},{"p":"de.nigjo.battleship.internal","c":"RsaKeyScheme","l":"generateKeyPair()"},{"p":"de.nigjo.battleship.internal","c":"X25519KeyScheme","l":"generateKeyPair()"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"generateRandom(int, int...)","u":"generateRandom(int,int...)"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"generateRandom(int, long, int...)","u":"generateRandom(int,long,int...)"},{"p":"de.nigjo.battleship.data","c":"BitBoardData","l":"generateRandom(int, Random, int...)","u":"generateRandom(int,java.util.Random,int...)"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"generateRandom(int, Random, int...)","u":"generateRandom(int,java.util.Random,int...)"},{"p":"de.nigjo.battleship.util","c":"Storage","l":"get(Class<T>)","u":"get(java.lang.Class)"},{"p":"de.nigjo.battleship.util","c":"Storage","l":"get(String, Class<T>)","u":"get(java.lang.String,java.lang.Class)"},{"p":"de.nigjo.battleship.util","c":"Storage","l":"get(String, Class<T>, Supplier<T>)","u":"get(java.lang.String,java.lang.Class,java.util.function.Supplier)"},{"p":"de.nigjo.battleship.util","c":"Storage","l":"getAll(Class<T>)","u":"getAll(java.lang.Class)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"getAllData(Class<T>)","u":"getAllData(java.lang.Class)"},{"p":"de.nigjo.battleship.data","c":"Savegame","l":"getAttack(Savegame.Record, KeyManager, BoardData)","u":"getAttack(de.nigjo.battleship.data.Savegame.Record,de.nigjo.battleship.data.KeyManager,de.nigjo.battleship.data.BoardData)"},{"p":"de.nigjo.battleship.util","c":"Storage","l":"getBoolean(String, boolean)","u":"getBoolean(java.lang.String,boolean)"},{"p":"de.nigjo.battleship.util","c":"Bundle","l":"getBundle(Class<?>)","u":"getBundle(java.lang.Class)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"getConfig(String)","u":"getConfig(java.lang.String)"},{"p":"de.nigjo.battleship.data","c":"Savegame","l":"getConfig(String)","u":"getConfig(java.lang.String)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"getData(Class<T>)","u":"getData(java.lang.Class)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"getData(String, Class<T>)","u":"getData(java.lang.String,java.lang.Class)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"getDataBoolean(String, boolean)","u":"getDataBoolean(java.lang.String,boolean)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"getDataInt(String, int)","u":"getDataInt(java.lang.String,int)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"getDataOrSet(String, Class<T>, Supplier<T>)","u":"getDataOrSet(java.lang.String,java.lang.Class,java.util.function.Supplier)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"getDataString(String)","u":"getDataString(java.lang.String)"},{"p":"de.nigjo.battleship.api","c":"StatusDisplayer","l":"getDefault()"},{"p":"de.nigjo.battleship","c":"MatchHost","l":"getDefault()"},{"p":"de.nigjo.battleship.util","c":"Storage","l":"getDefault()"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"getFingerprint()"},{"p":"de.nigjo.battleship.util","c":"Storage","l":"getInt(String, int)","u":"getInt(java.lang.String,int)"},{"p":"de.nigjo.battleship","c":"BattleshipGame.Config","l":"getKey()"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"getKeyManager()"},{"p":"de.nigjo.battleship.data","c":"Savegame.Record","l":"getKind()"},{"p":"de.nigjo.battleship.data","c":"Savegame","l":"getLastRecord()"},{"p":"de.nigjo.battleship.api","c":"SavegameStorage","l":"getLines()"},{"p":"de.nigjo.battleship.io","c":"LocalFileManager","l":"getLines()"},{"p":"de.nigjo.battleship.util","c":"Bundle","l":"getMessage(Class<?>, String)","u":"getMessage(java.lang.Class,java.lang.String)"},{"p":"de.nigjo.battleship.api","c":"KeyScheme","l":"getName()"},{"p":"de.nigjo.battleship.internal","c":"RsaKeyScheme","l":"getName()"},{"p":"de.nigjo.battleship.internal","c":"X25519KeyScheme","l":"getName()"},{"p":"de.nigjo.battleship.api","c":"SavegameStorage","l":"getNewLines()"},{"p":"de.nigjo.battleship.io","c":"LocalFileManager","l":"getNewLines()"},{"p":"de.nigjo.battleship.util","c":"StorageEvent","l":"getNewValue()"},{"p":"de.nigjo.battleship.util","c":"StorageEvent","l":"getOldValue()"},{"p":"de.nigjo.battleship.util","c":"Storage","l":"getOrSet(String, Class<T>, Supplier<T>)","u":"getOrSet(java.lang.String,java.lang.Class,java.util.function.Supplier)"},{"p":"de.nigjo.battleship.data","c":"Savegame.Record","l":"getPayload()"},{"p":"de.nigjo.battleship.data","c":"Savegame.Record","l":"getPayloadSequence()"},{"p":"de.nigjo.battleship.data","c":"Savegame.Record","l":"getPlayerid()"},{"p":"de.nigjo.battleship.util","c":"Storage","l":"getPropertyChangeListeners(String)","u":"getPropertyChangeListeners(java.lang.String)"},{"p":"de.nigjo.battleship.util","c":"StorageEvent","l":"getPropertyName()"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"getPublicKey()"},{"p":"de.nigjo.battleship.io","c":"LocalFileManager","l":"getSaveGameFile()"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"getScheme(String)","u":"getScheme(java.lang.String)"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"getSchemeName()"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"getSize()"},{"p":"de.nigjo.battleship.util","c":"StorageEvent","l":"getSource()"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"getState()"},{"p":"de.nigjo.battleship","c":"BattleshipGame.StateSnapshot","l":"getState()"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"getStateSnapshot()"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"getStatusDisplayer()"},{"p":"de.nigjo.battleship.data","c":"Savegame","l":"getStorage()"},{"p":"de.nigjo.battleship.util","c":"Storage","l":"getString(String)","u":"getString(java.lang.String)"},{"p":"de.nigjo.battleship","c":"BattleshipGame.Config","l":"getValue()"},{"p":"de.nigjo.battleship","c":"BattleshipGame.StateSnapshot","l":"getVersion()"},{"p":"de.nigjo.battleship.data","c":"Savegame","l":"getVersion()"},{"p":"de.nigjo.battleship.util","c":"Storage","l":"hasListeners(String)","u":"hasListeners(java.lang.String)"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"hasSessionKey()"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"hasShips()"},{"p":"de.nigjo.battleship.data","c":"BitBoardData","l":"hitCount()"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"hitCount()"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"ID_SHIFT"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"initRandom()"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"initRandom(long)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"initRandom(long, int, int...)","u":"initRandom(long,int,int...)"},{"p":"de.nigjo.battleship.data","c":"Savegame","l":"isAddressedTo(Savegame.Record, KeyManager)","u":"isAddressedTo(de.nigjo.battleship.data.Savegame.Record,de.nigjo.battleship.data.KeyManager)"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"isOpponent()"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"isSunk(int)"},{"p":"de.nigjo.battleship.data","c":"Savegame.Record","l":"KEY"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"KEY_CONFIG_PREFIX"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"KEY_MANAGER_OPPONENT"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"KEY_MANAGER_SELF"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"KEY_OPPONENT"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"KEY_PLAYER"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"KEY_PLAYER_NUM"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"KEY_SCHEME_PROPERTY"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"KEY_SELF"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"KEY_STATE"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"KeyManager(Path)","u":"%3Cinit%3E(java.nio.file.Path)"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"KeyManager(Path, String)","u":"%3Cinit%3E(java.nio.file.Path,java.lang.String)"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"KeyManager(String)","u":"%3Cinit%3E(java.lang.String)"},{"p":"de.nigjo.battleship.internal","c":"SavegameLoader","l":"loadGame(BattleshipGame, SavegameStorage)","u":"loadGame(de.nigjo.battleship.BattleshipGame,de.nigjo.battleship.api.SavegameStorage)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"loadSavegame(SavegameStorage)","u":"loadSavegame(de.nigjo.battleship.api.SavegameStorage)"},{"p":"de.nigjo.battleship.io","c":"LocalFileManager","l":"LocalFileManager(Path)","u":"%3Cinit%3E(java.nio.file.Path)"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"markResult(int, int, boolean)","u":"markResult(int,int,boolean)"},{"p":"de.nigjo.battleship","c":"MatchHost","l":"MatchHost(int)","u":"%3Cinit%3E(int)"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"MAX_STATUS"},{"p":"de.nigjo.battleship.data","c":"Savegame.Record","l":"MESSAGE"},{"p":"de.nigjo.battleship.internal","c":"RsaKeyScheme","l":"NAME"},{"p":"de.nigjo.battleship.internal","c":"X25519KeyScheme","l":"NAME"},{"p":"de.nigjo.battleship","c":"BattleshipGame.StateSnapshot","l":"next()"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"nextState(long)"},{"p":"de.nigjo.battleship.data","c":"BitBoardData","l":"parse(byte[], int, int)","u":"parse(byte[],int,int)"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"parse(byte[], int, int)","u":"parse(byte[],int,int)"},{"p":"de.nigjo.battleship.data","c":"BitBoardData","l":"parse(CharSequence)","u":"parse(java.lang.CharSequence)"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"parse(CharSequence)","u":"parse(java.lang.CharSequence)"},{"p":"de.nigjo.battleship.data","c":"Savegame.Record","l":"parseLine(String)","u":"parseLine(java.lang.String)"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"placeShip(int, int, int, int, boolean)","u":"placeShip(int,int,int,int,boolean)"},{"p":"de.nigjo.battleship.data","c":"Savegame.Record","l":"PLAYER"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"PLAYER_OPPONENT"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"PLAYER_SELF"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"preloadKeys()"},{"p":"de.nigjo.battleship.internal","c":"StateObserver","l":"propertyChange(StorageEvent)","u":"propertyChange(de.nigjo.battleship.util.StorageEvent)"},{"p":"de.nigjo.battleship.util","c":"StorageListener","l":"propertyChange(StorageEvent)","u":"propertyChange(de.nigjo.battleship.util.StorageEvent)"},{"p":"de.nigjo.battleship.util","c":"Storage","l":"put(Class<? super T>, T)","u":"put(java.lang.Class,T)"},{"p":"de.nigjo.battleship.util","c":"Storage","l":"put(String, Object)","u":"put(java.lang.String,java.lang.Object)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"putData(Class<? super T>, T)","u":"putData(java.lang.Class,T)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"putData(String, Object)","u":"putData(java.lang.String,java.lang.Object)"},{"p":"de.nigjo.battleship.data","c":"Savegame","l":"readNewRecords()"},{"p":"de.nigjo.battleship.io.internal","c":"SavegameManager","l":"readSavegame()"},{"p":"de.nigjo.battleship.data","c":"Savegame","l":"recordCount()"},{"p":"de.nigjo.battleship.data","c":"Savegame","l":"records(int, String)","u":"records(int,java.lang.String)"},{"p":"de.nigjo.battleship.data","c":"Savegame","l":"recordsSince(int)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"reload()"},{"p":"de.nigjo.battleship.internal","c":"SavegameLoader","l":"reloadGame(BattleshipGame, Savegame)","u":"reloadGame(de.nigjo.battleship.BattleshipGame,de.nigjo.battleship.data.Savegame)"},{"p":"de.nigjo.battleship.data","c":"BitBoardData","l":"remainingShipCells()"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"remainingShipCells()"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"remainingShips()"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"removePropertyChangeListener(String, StorageListener)","u":"removePropertyChangeListener(java.lang.String,de.nigjo.battleship.util.StorageListener)"},{"p":"de.nigjo.battleship.util","c":"Storage","l":"removePropertyChangeListener(String, StorageListener)","u":"removePropertyChangeListener(java.lang.String,de.nigjo.battleship.util.StorageListener)"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"removeShip(int)"},{"p":"de.nigjo.battleship.data","c":"Savegame.Record","l":"RESULT"},{"p":"de.nigjo.battleship.internal","c":"RsaKeyScheme","l":"RsaKeyScheme()","u":"%3Cinit%3E()"},{"p":"de.nigjo.battleship","c":"MatchHost.GameAction","l":"run(BattleshipGame)","u":"run(de.nigjo.battleship.BattleshipGame)"},{"p":"de.nigjo.battleship","c":"GameContext","l":"runWith(BattleshipGame, Runnable)","u":"runWith(de.nigjo.battleship.BattleshipGame,java.lang.Runnable)"},{"p":"de.nigjo.battleship.internal","c":"SavegameLoader","l":"SavegameLoader()","u":"%3Cinit%3E()"},{"p":"de.nigjo.battleship.io.internal","c":"SavegameManager","l":"SavegameManager(Path, Consumer<Savegame>)","u":"%3Cinit%3E(java.nio.file.Path,java.util.function.Consumer)"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"seal(String)","u":"seal(java.lang.String)"},{"p":"de.nigjo.battleship.util","c":"SerialExecutor","l":"SerialExecutor(Executor)","u":"%3Cinit%3E(java.util.concurrent.Executor)"},{"p":"de.nigjo.battleship.io.internal","c":"BackupManager","l":"setActive(boolean)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"setConfig(String, String)","u":"setConfig(java.lang.String,java.lang.String)"},{"p":"de.nigjo.battleship.data","c":"Savegame","l":"setConfig(String, String)","u":"setConfig(java.lang.String,java.lang.String)"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"setFleet(int...)"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"setOpponent(boolean)"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"setSessionKey(SecretKey)","u":"setSessionKey(javax.crypto.SecretKey)"},{"p":"de.nigjo.battleship.api","c":"StatusDisplayer","l":"setText(String)","u":"setText(java.lang.String)"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"SHIP"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"SHIP_EAST"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"SHIP_END"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"SHIP_MID_H"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"SHIP_MID_V"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"SHIP_NORTH"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"SHIP_SOUTH"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"SHIP_START"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"SHIP_WEST"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"shipIdAt(int, int)","u":"shipIdAt(int,int)"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"shootAt(int, int)","u":"shootAt(int,int)"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"SHOOTED_AT"},{"p":"de.nigjo.battleship.data","c":"GamePlayback","l":"since(int)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"STATE_ATTACK"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"STATE_ATTACKED"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"STATE_FINISHED"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"STATE_PLACEMENT"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"STATE_RESPONSE"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"STATE_WAIT_ATTACK"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"STATE_WAIT_RESPONSE"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"STATE_WAIT_START"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"stateAt(int, int)","u":"stateAt(int,int)"},{"p":"de.nigjo.battleship.internal","c":"StateObserver","l":"StateObserver(BattleshipGame)","u":"%3Cinit%3E(de.nigjo.battleship.BattleshipGame)"},{"p":"de.nigjo.battleship.util","c":"Storage","l":"Storage()","u":"%3Cinit%3E()"},{"p":"de.nigjo.battleship.data","c":"Savegame","l":"store(SavegameStorage)","u":"store(de.nigjo.battleship.api.SavegameStorage)"},{"p":"de.nigjo.battleship.api","c":"SavegameStorage","l":"storeLines(Stream<String>)","u":"storeLines(java.util.stream.Stream)"},{"p":"de.nigjo.battleship.io","c":"LocalFileManager","l":"storeLines(Stream<String>)","u":"storeLines(java.util.stream.Stream)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"storeOwnBoard()"},{"p":"de.nigjo.battleship","c":"MatchHost","l":"submit(BattleshipGame, MatchHost.GameAction)","u":"submit(de.nigjo.battleship.BattleshipGame,de.nigjo.battleship.MatchHost.GameAction)"},{"p":"de.nigjo.battleship.data","c":"GamePlayback","l":"to(BoardData)","u":"to(de.nigjo.battleship.data.BoardData)"},{"p":"de.nigjo.battleship.data","c":"GamePlayback","l":"toBoth(BoardData, BoardData)","u":"toBoth(de.nigjo.battleship.data.BoardData,de.nigjo.battleship.data.BoardData)"},{"p":"de.nigjo.battleship.api","c":"KeyScheme","l":"toPrivateKey(byte[])"},{"p":"de.nigjo.battleship.internal","c":"RsaKeyScheme","l":"toPrivateKey(byte[])"},{"p":"de.nigjo.battleship.internal","c":"X25519KeyScheme","l":"toPrivateKey(byte[])"},{"p":"de.nigjo.battleship.api","c":"KeyScheme","l":"toPublicKey(byte[])"},{"p":"de.nigjo.battleship.internal","c":"RsaKeyScheme","l":"toPublicKey(byte[])"},{"p":"de.nigjo.battleship.internal","c":"X25519KeyScheme","l":"toPublicKey(byte[])"},{"p":"de.nigjo.battleship","c":"BattleshipGame.StateSnapshot","l":"toString()"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"toString()"},{"p":"de.nigjo.battleship.data","c":"Savegame.Record","l":"toString()"},{"p":"de.nigjo.battleship.util","c":"StorageEvent","l":"toString()"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"UNKNOWN"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"unseal(String)","u":"unseal(java.lang.String)"},{"p":"de.nigjo.battleship.data","c":"BitBoardData","l":"unshotCells()"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"unshotCells()"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"unwrapKeys(String)","u":"unwrapKeys(java.lang.String)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"updateState()"},{"p":"de.nigjo.battleship.internal","c":"StateObserver","l":"updateState(BattleshipGame)","u":"updateState(de.nigjo.battleship.BattleshipGame)"},{"p":"de.nigjo.battleship","c":"BattleshipGame","l":"updateState(String)","u":"updateState(java.lang.String)"},{"p":"de.nigjo.battleship.data","c":"GamePlayback","l":"using(Executor)","u":"using(java.util.concurrent.Executor)"},{"p":"de.nigjo.battleship.data","c":"Savegame.Record","l":"VERSION"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"VERTICAL"},{"p":"de.nigjo.battleship.util","c":"SerialExecutor","l":"whenIdle(Runnable)","u":"whenIdle(java.lang.Runnable)"},{"p":"de.nigjo.battleship.data","c":"GamePlayback","l":"with(KeyManager)","u":"with(de.nigjo.battleship.data.KeyManager)"},{"p":"de.nigjo.battleship.data","c":"KeyManager","l":"wrapKeys(SecretKey...)","u":"wrapKeys(javax.crypto.SecretKey...)"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"writeTo(byte[], int)","u":"writeTo(byte[],int)"},{"p":"de.nigjo.battleship.data","c":"BoardData","l":"writeTo(CharBuffer)","u":"writeTo(java.nio.CharBuffer)"},{"p":"de.nigjo.battleship.internal","c":"X25519KeyScheme","l":"X25519KeyScheme()","u":"%3Cinit%3E()"}];updateSearchResults();
\ No newline at end of file
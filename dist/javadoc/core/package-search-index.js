@@ -0,0 +1 @@
+packageSearchIndex = [{"l":"All Packages","u":"allpackages-index.html"},{"l":"de.nigjo.battleship"},{"l":"de.nigjo.battleship.api"},{"l":"de.nigjo.battleship.data"},{"l":"de.nigjo.battleship.internal"},{"l":"de.nigjo.battleship.io"},{"l":"de.nigjo.battleship.io.internal"},{"l":"de.nigjo.battleship.util"}];updateSearchResults();
\ No newline at end of file
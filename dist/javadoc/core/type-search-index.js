@@ -0,0 +1 @@
+typeSearchIndex = [{"l":"All Classes and Interfaces","u":"allclasses-index.html"},{"p":"de.nigjo.battleship.io.internal","l":"BackupManager"},{"p":"de.nigjo.battleship","l":"BattleshipGame"},{"p":"de.nigjo.battleship.data","l":"BitBoardData"},{"p":"de.nigjo.battleship.data","l":"BoardData"},{"p":"de.nigjo.battleship.util","l":"Bundle"},{"p":"de.nigjo.battleship","l":"BattleshipGame.Config"},{"p":"de.nigjo.battleship.api","l":"KeyScheme.Decrypter"},{"p":"de.nigjo.battleship.api","l":"KeyScheme.Encrypter"},{"p":"de.nigjo.battleship","l":"MatchHost.GameAction"},{"p":"de.nigjo.battleship","l":"GameContext"},{"p":"de.nigjo.battleship.data","l":"GamePlayback"},{"p":"de.nigjo.battleship.data","l":"KeyManager"},{"p":"de.nigjo.battleship.api","l":"KeyScheme"},{"p":"de.nigjo.battleship.io","l":"LocalFileManager"},{"p":"de.nigjo.battleship","l":"MatchHost"},{"p":"de.nigjo.battleship.data","l":"Savegame.Record"},{"p":"de.nigjo.battleship.internal","l":"RsaKeyScheme"},{"p":"de.nigjo.battleship.data","l":"Savegame"},{"p":"de.nigjo.battleship.internal","l":"SavegameLoader"},{"p":"de.nigjo.battleship.io.internal","l":"SavegameManager"},{"p":"de.nigjo.battleship.api","l":"SavegameStorage"},{"p":"de.nigjo.battleship.util","l":"SerialExecutor"},{"p":"de.nigjo.battleship.internal","l":"StateObserver"},{"p":"de.nigjo.battleship","l":"BattleshipGame.StateSnapshot"},{"p":"de.nigjo.battleship.api","l":"StatusDisplayer"},{"p":"de.nigjo.battleship.util","l":"Storage"},{"p":"de.nigjo.battleship.util","l":"StorageEvent"},{"p":"de.nigjo.battleship.util","l":"StorageListener"},{"p":"de.nigjo.battleship.internal","l":"X25519KeyScheme"}];updateSearchResults();
\ No newline at end of file
@@ -0,0 +1 @@
+memberSearchIndex = [{"p":"de.nigjo.battleship.ui","c":"ActionBase","l":"ActionBase()","u":"%3Cinit%3E()"},{"p":"de.nigjo.battleship.ui.actions","c":"LoadGameAction","l":"actionPerformed(ActionEvent)","u":"actionPerformed(java.awt.event.ActionEvent)"},{"p":"de.nigjo.battleship.ui.actions","c":"NewGameAction","l":"actionPerformed(ActionEvent)","u":"actionPerformed(java.awt.event.ActionEvent)"},{"p":"de.nigjo.battleship.ui.actions","c":"RefreshAction","l":"actionPerformed(ActionEvent)","u":"actionPerformed(java.awt.event.ActionEvent)"},{"p":"de.nigjo.battleship.ui.painter","c":"ActivePlayerMark","l":"ActivePlayerMark()","u":"%3Cinit%3E()"},{"p":"de.nigjo.battleship.ui.painter","c":"AttackResults","l":"AttackResults()","u":"%3Cinit%3E()"},{"p":"de.nigjo.battleship.ui.painter","c":"AttackSelection","l":"AttackSelection()","u":"%3Cinit%3E()"},{"p":"de.nigjo.battleship","c":"CliArg","l":"backup"},{"p":"de.nigjo.battleship.ui.painter","c":"BoardCellMouseListener","l":"BoardCellMouseListener(Consumer<MouseEvent>, Consumer<MouseEvent>)","u":"%3Cinit%3E(java.util.function.Consumer,java.util.function.Consumer)"},{"p":"de.nigjo.battleship.ui.painter","c":"AttackSelection","l":"checkActive(Storage, String)","u":"checkActive(de.nigjo.battleship.util.Storage,java.lang.String)"},{"p":"de.nigjo.battleship.ui.painter","c":"InteractivePainter","l":"checkActive(Storage, String)","u":"checkActive(de.nigjo.battleship.util.Storage,java.lang.String)"},{"p":"de.nigjo.battleship.ui.painter","c":"ShipsPlacer","l":"checkActive(Storage, String)","u":"checkActive(de.nigjo.battleship.util.Storage,java.lang.String)"},{"p":"de.nigjo.battleship.ui","c":"ActionBase.ContextActionProvider","l":"createContextAction(Object)","u":"createContextAction(java.lang.Object)"},{"p":"de.nigjo.battleship.ui","c":"StatusLine","l":"createStatus(String, int, int)","u":"createStatus(java.lang.String,int,int)"},{"p":"de.nigjo.battleship.ui.painter","c":"DebugCross","l":"DebugCross()","u":"%3Cinit%3E()"},{"p":"de.nigjo.battleship.ui","c":"GameBoard","l":"GameBoard(BattleshipGame)","u":"%3Cinit%3E(de.nigjo.battleship.BattleshipGame)"},{"p":"de.nigjo.battleship.ui","c":"ActionsManager","l":"getActions(String)","u":"getActions(java.lang.String)"},{"p":"de.nigjo.battleship.ui","c":"OceanBoard.Data","l":"getBoard()"},{"p":"de.nigjo.battleship.ui.painter","c":"InteractivePainter","l":"getBoard()"},{"p":"de.nigjo.battleship.ui","c":"OceanBoard.Data","l":"getCellSize()"},{"p":"de.nigjo.battleship.ui","c":"OceanBoard.Data","l":"getContext()"},{"p":"de.nigjo.battleship.ui","c":"ActionsManager","l":"getContextActions(String, Object)","u":"getContextActions(java.lang.String,java.lang.Object)"},{"p":"de.nigjo.battleship.ui.painter","c":"InteractivePainter","l":"getCurrentPlayer()"},{"p":"de.nigjo.battleship.ui","c":"ActionsManager","l":"getDefault()"},{"p":"de.nigjo.battleship.ui","c":"DialogDisplayer","l":"getDefault()"},{"p":"de.nigjo.battleship.ui","c":"StatusLine","l":"getDefault()"},{"p":"de.nigjo.battleship.ui","c":"ActionsManager","l":"getFrame()"},{"p":"de.nigjo.battleship.ui","c":"OceanBoard.Data","l":"getHeight()"},{"p":"de.nigjo.battleship.ui","c":"ActionBase","l":"getIcon()"},{"p":"de.nigjo.battleship.ui.actions","c":"LoadGameAction","l":"getIcon()"},{"p":"de.nigjo.battleship.ui.actions","c":"NewGameAction","l":"getIcon()"},{"p":"de.nigjo.battleship.ui.actions","c":"RefreshAction","l":"getIcon()"},{"p":"de.nigjo.battleship.ui","c":"ActionBase","l":"getMenuIcon()"},{"p":"de.nigjo.battleship.ui.actions","c":"NewGameAction","l":"getMenuIcon()"},{"p":"de.nigjo.battleship.ui","c":"ActionBase","l":"getName()"},{"p":"de.nigjo.battleship.ui.actions","c":"LoadGameAction","l":"getName()"},{"p":"de.nigjo.battleship.ui.actions","c":"NewGameAction","l":"getName()"},{"p":"de.nigjo.battleship.ui.actions","c":"RefreshAction","l":"getName()"},{"p":"de.nigjo.battleship.ui","c":"OceanBoard.Data","l":"getOffsetX()"},{"p":"de.nigjo.battleship.ui","c":"OceanBoard.Data","l":"getOffsetY()"},{"p":"de.nigjo.battleship","c":"CliArg","l":"getParam()"},{"p":"de.nigjo.battleship.ui","c":"ActionBase","l":"getPaths()"},{"p":"de.nigjo.battleship.ui.actions","c":"LoadGameAction","l":"getPaths()"},{"p":"de.nigjo.battleship.ui.actions","c":"NewGameAction","l":"getPaths()"},{"p":"de.nigjo.battleship.ui.actions","c":"RefreshAction","l":"getPaths()"},{"p":"de.nigjo.battleship.ui","c":"ActionBase","l":"getPosition()"},{"p":"de.nigjo.battleship.ui.actions","c":"LoadGameAction","l":"getPosition()"},{"p":"de.nigjo.battleship.ui.actions","c":"NewGameAction","l":"getPosition()"},{"p":"de.nigjo.battleship.ui.actions","c":"RefreshAction","l":"getPosition()"},{"p":"de.nigjo.battleship.ui","c":"OceanBoardPainter","l":"getPosition()"},{"p":"de.nigjo.battleship.ui.painter","c":"ActivePlayerMark","l":"getPosition()"},{"p":"de.nigjo.battleship.ui.painter","c":"AttackResults","l":"getPosition()"},{"p":"de.nigjo.battleship.ui.painter","c":"AttackSelection","l":"getPosition()"},{"p":"de.nigjo.battleship.ui.painter","c":"DebugCross","l":"getPosition()"},{"p":"de.nigjo.battleship.ui.painter","c":"GridBoard","l":"getPosition()"},{"p":"de.nigjo.battleship.ui.painter","c":"Koordinates","l":"getPosition()"},{"p":"de.nigjo.battleship.ui.painter","c":"ShipsPlacer","l":"getPosition()"},{"p":"de.nigjo.battleship.ui.painter","c":"SimpleShipsPainter","l":"getPosition()"},{"p":"de.nigjo.battleship.ui.painter","c":"InteractivePainter","l":"getSelectedCell()"},{"p":"de.nigjo.battleship.ui","c":"OceanBoard.Data","l":"getWidth()"},{"p":"de.nigjo.battleship.ui.painter","c":"GridBoard","l":"GridBoard()","u":"%3Cinit%3E()"},{"p":"de.nigjo.battleship","c":"CliArg","l":"help"},{"p":"de.nigjo.battleship","c":"CliArg","l":"id"},{"p":"de.nigjo.battleship.ui.painter","c":"InteractivePainter","l":"InteractivePainter()","u":"%3Cinit%3E()"},{"p":"de.nigjo.battleship.ui.painter","c":"InteractivePainter","l":"isActive()"},{"p":"de.nigjo.battleship","c":"CliArg","l":"isDefined()"},{"p":"de.nigjo.battleship.ui.painter","c":"Koordinates","l":"Koordinates()","u":"%3Cinit%3E()"},{"p":"de.nigjo.battleship","c":"Launcher","l":"Launcher()","u":"%3Cinit%3E()"},{"p":"de.nigjo.battleship.ui.actions","c":"LoadGameAction","l":"LoadGameAction()","u":"%3Cinit%3E()"},{"p":"de.nigjo.battleship.ui","c":"ActionBase","l":"loadIcon(String)","u":"loadIcon(java.lang.String)"},{"p":"de.nigjo.battleship","c":"Launcher","l":"main(String[])","u":"main(java.lang.String[])"},{"p":"de.nigjo.battleship.ui","c":"StatusLine","l":"max(String...)","u":"max(java.lang.String...)"},{"p":"de.nigjo.battleship.ui.painter","c":"BoardCellMouseListener","l":"mouseClicked(MouseEvent)","u":"mouseClicked(java.awt.event.MouseEvent)"},{"p":"de.nigjo.battleship.ui.painter","c":"BoardCellMouseListener","l":"mouseEntered(MouseEvent)","u":"mouseEntered(java.awt.event.MouseEvent)"},{"p":"de.nigjo.battleship.ui.painter","c":"BoardCellMouseListener","l":"mouseExited(MouseEvent)","u":"mouseExited(java.awt.event.MouseEvent)"},{"p":"de.nigjo.battleship.ui.painter","c":"BoardCellMouseListener","l":"mouseMoved(MouseEvent)","u":"mouseMoved(java.awt.event.MouseEvent)"},{"p":"de.nigjo.battleship.ui.actions","c":"NewGameAction","l":"NewGameAction()","u":"%3Cinit%3E()"},{"p":"de.nigjo.battleship","c":"CliArg","l":"NON_ARG_PARAM"},{"p":"de.nigjo.battleship.ui","c":"OceanBoard","l":"OceanBoard(BoardData)","u":"%3Cinit%3E(de.nigjo.battleship.data.BoardData)"},{"p":"de.nigjo.battleship.ui.painter","c":"AttackSelection","l":"paint(Graphics2D, OceanBoard.Data)","u":"paint(java.awt.Graphics2D,de.nigjo.battleship.ui.OceanBoard.Data)"},{"p":"de.nigjo.battleship.ui.painter","c":"InteractivePainter","l":"paint(Graphics2D, OceanBoard.Data)","u":"paint(java.awt.Graphics2D,de.nigjo.battleship.ui.OceanBoard.Data)"},{"p":"de.nigjo.battleship.ui.painter","c":"ShipsPlacer","l":"paint(Graphics2D, OceanBoard.Data)","u":"paint(java.awt.Graphics2D,de.nigjo.battleship.ui.OceanBoard.Data)"},{"p":"de.nigjo.battleship.ui.painter","c":"ActivePlayerMark","l":"paint(Graphics2D, OceanBoard.Data, int, int)","u":"paint(java.awt.Graphics2D,de.nigjo.battleship.ui.OceanBoard.Data,int,int)"},{"p":"de.nigjo.battleship.ui.painter","c":"AttackResults","l":"paint(Graphics2D, OceanBoard.Data, int, int)","u":"paint(java.awt.Graphics2D,de.nigjo.battleship.ui.OceanBoard.Data,int,int)"},{"p":"de.nigjo.battleship.ui.painter","c":"DebugCross","l":"paint(Graphics2D, OceanBoard.Data, int, int)","u":"paint(java.awt.Graphics2D,de.nigjo.battleship.ui.OceanBoard.Data,int,int)"},{"p":"de.nigjo.battleship.ui.painter","c":"GridBoard","l":"paint(Graphics2D, OceanBoard.Data, int, int)","u":"paint(java.awt.Graphics2D,de.nigjo.battleship.ui.OceanBoard.Data,int,int)"},{"p":"de.nigjo.battleship.ui.painter","c":"InteractivePainter","l":"paint(Graphics2D, OceanBoard.Data, int, int)","u":"paint(java.awt.Graphics2D,de.nigjo.battleship.ui.OceanBoard.Data,int,int)"},{"p":"de.nigjo.battleship.ui.painter","c":"Koordinates","l":"paint(Graphics2D, OceanBoard.Data, int, int)","u":"paint(java.awt.Graphics2D,de.nigjo.battleship.ui.OceanBoard.Data,int,int)"},{"p":"de.nigjo.battleship.ui.painter","c":"SimpleShipsPainter","l":"paint(Graphics2D, OceanBoard.Data, int, int)","u":"paint(java.awt.Graphics2D,de.nigjo.battleship.ui.OceanBoard.Data,int,int)"},{"p":"de.nigjo.battleship.ui","c":"OceanBoard","l":"paintComponent(Graphics)","u":"paintComponent(java.awt.Graphics)"},{"p":"de.nigjo.battleship","c":"CliArg","l":"parse(String[])","u":"parse(java.lang.String[])"},{"p":"de.nigjo.battleship.ui.actions","c":"RefreshAction","l":"RefreshAction()","u":"%3Cinit%3E()"},{"p":"de.nigjo.battleship.ui.painter","c":"BoardCellMouseListener","l":"registerListeners(JComponent)","u":"registerListeners(javax.swing.JComponent)"},{"p":"de.nigjo.battleship.ui.painter","c":"BoardCellMouseListener","l":"removeListeners(JComponent)","u":"removeListeners(javax.swing.JComponent)"},{"p":"de.nigjo.battleship.ui.painter","c":"InteractivePainter","l":"repaint()"},{"p":"de.nigjo.battleship.ui.painter","c":"AttackSelection","l":"selectCell(MouseEvent)","u":"selectCell(java.awt.event.MouseEvent)"},{"p":"de.nigjo.battleship.ui.painter","c":"InteractivePainter","l":"selectCell(MouseEvent)","u":"selectCell(java.awt.event.MouseEvent)"},{"p":"de.nigjo.battleship.ui.painter","c":"ShipsPlacer","l":"selectCell(MouseEvent)","u":"selectCell(java.awt.event.MouseEvent)"},{"p":"de.nigjo.battleship.ui.painter","c":"InteractivePainter","l":"setActive(boolean)"},{"p":"de.nigjo.battleship.ui","c":"StatusLine","l":"setStatus(String, String)","u":"setStatus(java.lang.String,java.lang.String)"},{"p":"de.nigjo.battleship.ui","c":"StatusLine","l":"setText(String)","u":"setText(java.lang.String)"},{"p":"de.nigjo.battleship.ui.painter","c":"ShipsPlacer","l":"ShipsPlacer()","u":"%3Cinit%3E()"},{"p":"de.nigjo.battleship","c":"CliArg","l":"showError(IllegalArgumentException)","u":"showError(java.lang.IllegalArgumentException)"},{"p":"de.nigjo.battleship","c":"CliArg","l":"showError(String)","u":"showError(java.lang.String)"},{"p":"de.nigjo.battleship.ui","c":"DialogDisplayer","l":"showError(String, String)","u":"showError(java.lang.String,java.lang.String)"},{"p":"de.nigjo.battleship.ui","c":"SwingDisplayer","l":"showError(String, String)","u":"showError(java.lang.String,java.lang.String)"},{"p":"de.nigjo.battleship.ui","c":"DialogDisplayer","l":"showMessage(String, String)","u":"showMessage(java.lang.String,java.lang.String)"},{"p":"de.nigjo.battleship.ui","c":"SwingDisplayer","l":"showMessage(String, String)","u":"showMessage(java.lang.String,java.lang.String)"},{"p":"de.nigjo.battleship.ui","c":"DialogDisplayer","l":"showQuestion(String, String)","u":"showQuestion(java.lang.String,java.lang.String)"},{"p":"de.nigjo.battleship.ui","c":"SwingDisplayer","l":"showQuestion(String, String)","u":"showQuestion(java.lang.String,java.lang.String)"},{"p":"de.nigjo.battleship.ui.painter","c":"SimpleShipsPainter","l":"SimpleShipsPainter()","u":"%3Cinit%3E()"},{"p":"de.nigjo.battleship.ui","c":"StatusLine","l":"StatusLine()","u":"%3Cinit%3E()"},{"p":"de.nigjo.battleship.ui","c":"SwingDisplayer","l":"SwingDisplayer()","u":"%3Cinit%3E()"},{"p":"de.nigjo.battleship","c":"CliArg","l":"toHelpString()"},{"p":"de.nigjo.battleship","c":"CliArg","l":"toString()"},{"p":"de.nigjo.battleship.ui.painter","c":"InteractivePainter","l":"updateCellLocation(MouseEvent)","u":"updateCellLocation(java.awt.event.MouseEvent)"},{"p":"de.nigjo.battleship.ui.painter","c":"ShipsPlacer","l":"updateCellLocation(MouseEvent)","u":"updateCellLocation(java.awt.event.MouseEvent)"},{"p":"de.nigjo.battleship.ui.painter","c":"InteractivePainter","l":"updateCellLocation(OceanBoard.Data)","u":"updateCellLocation(de.nigjo.battleship.ui.OceanBoard.Data)"},{"p":"de.nigjo.battleship.ui.painter","c":"InteractivePainter","l":"updateCellLocation(OceanBoard.Data, BiPredicate<Integer, Integer>)","u":"updateCellLocation(de.nigjo.battleship.ui.OceanBoard.Data,java.util.function.BiPredicate)"},{"p":"de.nigjo.battleship","c":"CliArg","l":"valueOf(String)","u":"valueOf(java.lang.String)"},{"p":"de.nigjo.battleship","c":"CliArg","l":"values()"},{"p":"de.nigjo.battleship.ui.painter","c":"InteractivePainter","l":"withBoard(Consumer<BoardData>)","u":"withBoard(java.util.function.Consumer)"},{"p":"de.nigjo.battleship.ui.painter","c":"InteractivePainter","l":"withComponent(Consumer<JComponent>)","u":"withComponent(java.util.function.Consumer)"},{"p":"de.nigjo.battleship.ui.painter","c":"InteractivePainter","l":"withGame(Consumer<BattleshipGame>)","u":"withGame(java.util.function.Consumer)"}];updateSearchResults();
\ No newline at end of file
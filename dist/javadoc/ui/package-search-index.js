@@ -0,0 +1 @@
+packageSearchIndex = [{"l":"All Packages","u":"allpackages-index.html"},{"l":"de.nigjo.battleship"},{"l":"de.nigjo.battleship.ui"},{"l":"de.nigjo.battleship.ui.actions"},{"l":"de.nigjo.battleship.ui.painter"}];updateSearchResults();
\ No newline at end of file
@@ -0,0 +1 @@
+typeSearchIndex = [{"p":"de.nigjo.battleship.ui","l":"ActionBase"},{"p":"de.nigjo.battleship.ui","l":"ActionsManager"},{"p":"de.nigjo.battleship.ui.painter","l":"ActivePlayerMark"},{"l":"All Classes and Interfaces","u":"allclasses-index.html"},{"p":"de.nigjo.battleship.ui.painter","l":"AttackResults"},{"p":"de.nigjo.battleship.ui.painter","l":"AttackSelection"},{"p":"de.nigjo.battleship.ui.painter","l":"BoardCellMouseListener"},{"p":"de.nigjo.battleship","l":"CliArg"},{"p":"de.nigjo.battleship.ui","l":"ActionBase.ContextActionProvider"},{"p":"de.nigjo.battleship.ui","l":"OceanBoard.Data"},{"p":"de.nigjo.battleship.ui.painter","l":"DebugCross"},{"p":"de.nigjo.battleship.ui","l":"DialogDisplayer"},{"p":"de.nigjo.battleship.ui","l":"GameBoard"},{"p":"de.nigjo.battleship.ui.painter","l":"GridBoard"},{"p":"de.nigjo.battleship.ui.painter","l":"InteractivePainter"},{"p":"de.nigjo.battleship.ui.painter","l":"Koordinates"},{"p":"de.nigjo.battleship","l":"Launcher"},{"p":"de.nigjo.battleship.ui.actions","l":"LoadGameAction"},{"p":"de.nigjo.battleship.ui.actions","l":"NewGameAction"},{"p":"de.nigjo.battleship.ui","l":"OceanBoard"},{"p":"de.nigjo.battleship.ui","l":"OceanBoardPainter"},{"p":"de.nigjo.battleship.ui.actions","l":"RefreshAction"},{"p":"de.nigjo.battleship.ui.painter","l":"ShipsPlacer"},{"p":"de.nigjo.battleship.ui.painter","l":"SimpleShipsPainter"},{"p":"de.nigjo.battleship.ui","l":"StatusLine"},{"p":"de.nigjo.battleship.ui","l":"SwingDisplayer"}];updateSearchResults();
\ No newline at end of file
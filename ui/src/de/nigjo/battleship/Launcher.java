@@ -51,12 +51,15 @@ import de.nigjo.battleship.util.Storage;
  */
 public class Launcher
 {
+  /** Startzeit fuer die Messung bis zum sichtbaren Fenster. */
+  private static long started;
 
   /**
    * @param args the command line arguments
    */
   public static void main(String[] args)
   {
+    started = System.nanoTime();
     //<editor-fold defaultstate="collapsed" desc="ensureLaF();">
     if(!GraphicsEnvironment.isHeadless())
     {
@@ -102,6 +105,8 @@ public class Launcher
         CliArg.id.isDefined() ? CliArg.id.getParam() : "battleship.player.id";
 
     BattleshipGame game = new BattleshipGame(Path.of(idFileName));
+    //Schluessel erstellen und pruefen dauert. Das passiert im Hintergrund.
+    game.preloadKeys();
     game.updateState(BattleshipGame.STATE_FINISHED);
 
     Storage.getDefault().put(BattleshipGame.class.getName(), game);
@@ -183,6 +188,9 @@ public class Launcher
     frame.setLocationByPlatform(true);
     frame.pack();
     frame.setVisible(true);
+    //Die Schluessel werden noch im Hintergrund erstellt und geprueft.
+    Logger.getLogger(Launcher.class.getName()).log(Level.INFO,
+        "window visible after {0} ms", (System.nanoTime() - started) / 1_000_000);
 
     addObververStatus(game, BattleshipGame.KEY_PLAYER_NUM, 100,
         StatusLine.max("1", "2"));
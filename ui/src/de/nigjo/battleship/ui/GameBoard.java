@@ -27,8 +27,8 @@ import javax.swing.JPanel;
 import javax.swing.JToolBar;
 
 import de.nigjo.battleship.BattleshipGame;
+import de.nigjo.battleship.GameContext;
 import de.nigjo.battleship.data.BoardData;
-import de.nigjo.battleship.util.Storage;
 
 /**
  *
@@ -67,8 +67,7 @@ public class GameBoard extends JPanel
     players.add(createPlayerSide(game, BoardData.KEY_OPPONENT));
     add(players, BorderLayout.CENTER);
 
-    Storage.getDefault().get(BattleshipGame.class)
-        .addPropertyChangeListener(BattleshipGame.KEY_PLAYER, pce -> repaint());
+    game.addPropertyChangeListener(BattleshipGame.KEY_PLAYER, pce -> repaint());
   }
 
   private static JPanel createPlayerSide(BattleshipGame game, String boardkey)
@@ -82,7 +81,8 @@ public class GameBoard extends JPanel
         BorderLayout.PAGE_START);
     JToolBar playerActions = new JToolBar("Actions", JToolBar.VERTICAL);
     playerBoard.add(playerActions, BorderLayout.LINE_START);
-    OceanBoard ocean = new OceanBoard(playerData);
+    //Die Painter melden sich beim Spiel dieses Bretts an.
+    OceanBoard ocean = GameContext.callWith(game, () -> new OceanBoard(playerData));
     ocean.setName(playerData.isOpponent() ? "opponent" : "self");
     playerBoard.add(ocean, BorderLayout.CENTER);
 
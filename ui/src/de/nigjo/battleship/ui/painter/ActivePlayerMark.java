@@ -24,9 +24,9 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 
 import de.nigjo.battleship.BattleshipGame;
+import de.nigjo.battleship.GameContext;
 import de.nigjo.battleship.ui.OceanBoard;
 import de.nigjo.battleship.ui.OceanBoardPainter;
-import de.nigjo.battleship.util.Storage;
 
 /**
  *
@@ -38,7 +38,7 @@ public class ActivePlayerMark implements OceanBoardPainter
 
   public ActivePlayerMark()
   {
-    Storage.getDefault().get(BattleshipGame.class)
+    GameContext.current().orElseThrow()
         .addPropertyChangeListener(BattleshipGame.KEY_PLAYER,
             pce ->
         {
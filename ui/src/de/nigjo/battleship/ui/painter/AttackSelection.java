@@ -24,10 +24,7 @@ import java.awt.Point;
 import java.awt.event.MouseEvent;
 
 import de.nigjo.battleship.BattleshipGame;
-import de.nigjo.battleship.api.StatusDisplayer;
 import de.nigjo.battleship.data.BoardData;
-import de.nigjo.battleship.data.KeyManager;
-import de.nigjo.battleship.data.Savegame;
 import de.nigjo.battleship.ui.OceanBoard;
 import de.nigjo.battleship.util.Storage;
 
@@ -52,27 +49,7 @@ public class AttackSelection extends InteractivePainter
   protected void selectCell(MouseEvent e)
   {
     Point selectedCell = getSelectedCell();
-    String message = "Attacke auf "
-        + Character.toString('A' + selectedCell.x) + (selectedCell.y + 1);
-    StatusDisplayer.getDefault().setText(message);
-    withBoard(board ->
-    {
-      board.shootAt(selectedCell.x, selectedCell.y);
-      withGame(game ->
-      {
-        KeyManager km = game.getData(
-            KeyManager.KEY_MANAGER_OPPONENT, KeyManager.class);
-        String payload = km.encode(selectedCell.x + "," + selectedCell.y);
-        //Immer mit der Spielernummer markieren, die den Record lesen kann
-        game.getData(Savegame.class)
-            .addRecord(Savegame.Record.MESSAGE, getCurrentPlayer(), message);
-        Logger.getLogger(BattleshipGame.class.getName())
-            .log(Level.INFO, "{0}", message);
-        game.getData(Savegame.class)
-            .addRecord(Savegame.Record.ATTACK, 3 - getCurrentPlayer(), payload);
-        game.updateState(BattleshipGame.STATE_WAIT_RESPONSE);
-      });
-    });
+    withGame(game -> game.attack(selectedCell.x, selectedCell.y));
     repaint();
   }
 
@@ -27,6 +27,7 @@ import java.awt.event.MouseEvent;
 import javax.swing.JComponent;
 
 import de.nigjo.battleship.BattleshipGame;
+import de.nigjo.battleship.GameContext;
 import de.nigjo.battleship.data.BoardData;
 import de.nigjo.battleship.ui.OceanBoard;
 import de.nigjo.battleship.ui.OceanBoardPainter;
@@ -38,6 +39,7 @@ import de.nigjo.battleship.util.Storage;
  */
 public abstract class InteractivePainter implements OceanBoardPainter
 {
+  private final BattleshipGame game;
   private int currentPlayer;
 
   private BoardCellMouseListener mia;
@@ -50,9 +52,7 @@ public abstract class InteractivePainter implements OceanBoardPainter
 
   protected InteractivePainter()
   {
-    BattleshipGame game =
-        Storage.getDefault().find(BattleshipGame.class)
-            .orElseThrow();
+    game = GameContext.current().orElseThrow();
     game.addPropertyChangeListener(BattleshipGame.KEY_STATE,
         pce -> checkGameState(pce.getSource(), pce.getNewValue()));
     currentPlayer = game.getDataInt(BattleshipGame.KEY_PLAYER_NUM, 0);
@@ -127,8 +127,7 @@ public abstract class InteractivePainter implements OceanBoardPainter
 
   protected void withGame(Consumer<BattleshipGame> worker)
   {
-    Storage.getDefault().find(BattleshipGame.class)
-        .ifPresent(worker);
+    worker.accept(game);
   }
 
   protected void withBoard(Consumer<BoardData> worker)
@@ -83,7 +83,7 @@ public class ShipsPlacer extends InteractivePainter
     try
     {
       BoardData board = getBoard().orElseThrow();
-      board.placeShip(currentShip, validLocation.x, validLocation.y,
+      board.placeShip(currentShip + 1, validLocation.x, validLocation.y,
           ships[currentShip], vertical);
       ++currentShip;
 